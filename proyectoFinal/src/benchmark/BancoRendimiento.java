@@ -0,0 +1,244 @@
+package benchmark;
+
+import controllers.*;
+import model.*;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Banco de rendimiento por consola.
+ * Ejecuta los algoritmos sobre laberintos grandes y mide, por ejecución,
+ * el tiempo y los bytes asignados en el heap por el hilo que resuelve.
+ * Con sin-traza los algoritmos no registran el orden de visitas, así se
+ * mide solo la búsqueda.
+ *
+ * Uso: java -cp bin benchmark.BancoRendimiento [filas] [columnas] [repeticiones] [sin-traza]
+ */
+public class BancoRendimiento {
+    private static final com.sun.management.ThreadMXBean HILOS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final List<DescripcionAlgoritmo> algoritmos = new ArrayList<>();
+    private boolean registrarVisitas = true;
+
+    public static void main(String[] args) throws InterruptedException {
+        int filas = args.length > 0 ? Integer.parseInt(args[0]) : 301;
+        int columnas = args.length > 1 ? Integer.parseInt(args[1]) : 301;
+        int repeticiones = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        // Todos los algoritmos del registro y algunas variantes que la interfaz no muestra
+        BancoRendimiento banco = new BancoRendimiento();
+        banco.setRegistrarVisitas(!(args.length > 3 && args[3].equals("sin-traza")));
+        for (DescripcionAlgoritmo descripcion : RegistroAlgoritmos.getInstancia().getAlgoritmos()) {
+            banco.agregar(descripcion);
+        }
+        banco.agregar(new DescripcionAlgoritmo("BFS Bitboard (dos niveles)", l -> new BFSOndaBits(l, true),
+            true, DescripcionAlgoritmo.Memoria.BITS_POR_CELDA, false, DescripcionAlgoritmo.SIN_LIMITE));
+        banco.agregar(new DescripcionAlgoritmo("A* (heurística cero)", l -> new AEstrella(l,
+            AEstrella.Heuristica.CERO, AEstrella.Desempate.LLEGADA),
+            true, DescripcionAlgoritmo.Memoria.ENTEROS_POR_CELDA, false, DescripcionAlgoritmo.SIN_LIMITE));
+        banco.agregar(new DescripcionAlgoritmo("Portafolio (solo óptimos)", l -> new ResolvedorPortafolio(l, true),
+            true, DescripcionAlgoritmo.Memoria.VARIAS_COPIAS, true, DescripcionAlgoritmo.SIN_LIMITE));
+
+        // Pila grande para que los algoritmos recursivos soporten laberintos grandes
+        Thread hilo = new Thread(null, () -> {
+            Laberinto simple = new Laberinto(filas, columnas);
+            simple.setSemilla(42);
+            simple.generarLaberintoSimple();
+            banco.ejecutar("simple " + filas + "x" + columnas, simple, repeticiones);
+
+            Laberinto patron = new Laberinto(filas, columnas);
+            patron.generarLaberintoPatron();
+            banco.ejecutar("patron " + filas + "x" + columnas, patron, repeticiones);
+
+            // Sin paredes: el peor caso para los recorridos en amplitud
+            Laberinto abierto = new Laberinto(filas, columnas);
+            banco.ejecutar("abierto " + filas + "x" + columnas, abierto, repeticiones);
+
+            // Inicio y fin en el interior: las búsquedas no quedan acotadas por los bordes
+            Laberinto centro = new Laberinto(filas, columnas);
+            centro.setInicio(filas / 2, columnas / 4);
+            centro.setFin(filas / 2, columnas - 1 - columnas / 4);
+            banco.ejecutar("abierto centro " + filas + "x" + columnas, centro, repeticiones);
+
+            banco.escalarBFSParalelo("abierto " + filas + "x" + columnas, abierto, repeticiones);
+
+            compararAlcance("simple " + filas + "x" + columnas, simple, repeticiones);
+            compararAlcance("abierto " + filas + "x" + columnas, abierto, repeticiones);
+
+            banco.compararMonotono(filas, 10_000, repeticiones);
+        }, "banco", 1L << 30);
+        hilo.start();
+        hilo.join();
+    }
+
+    public void agregar(DescripcionAlgoritmo descripcion) {
+        algoritmos.add(descripcion);
+    }
+
+    /**
+     * false para medir sin registrar el orden de visitas (ControlEjecucion.setRegistrarVisitas)
+     */
+    public void setRegistrarVisitas(boolean registrarVisitas) {
+        this.registrarVisitas = registrarVisitas;
+    }
+
+    private ControlEjecucion crearControl() {
+        ControlEjecucion control = new ControlEjecucion();
+        control.setRegistrarVisitas(registrarVisitas);
+        return control;
+    }
+
+    /**
+     * Ejecuta todos los algoritmos registrados sobre el laberinto e imprime
+     * la mediana de tiempo y de bytes asignados por ejecución. Los que
+     * superan su tamaño máximo recomendado también se miden, marcados con *.
+     */
+    public void ejecutar(String titulo, Laberinto laberinto, int repeticiones) {
+        System.out.println("== " + titulo + (registrarVisitas ? "" : ", sin traza") + " ==");
+        System.out.printf("%-42s %12s %14s %10s %10s %8s%n",
+            "Algoritmo", "Tiempo (ms)", "Asignado (KB)", "Visitadas", "Expandidos", "Camino");
+
+        long hiloId = Thread.currentThread().getId();
+        for (DescripcionAlgoritmo descripcion : algoritmos) {
+            String nombre = descripcion.isRecomendadoPara(laberinto)
+                ? descripcion.getNombre() : descripcion.getNombre() + " *";
+            long[] tiempos = new long[repeticiones];
+            long[] bytes = new long[repeticiones];
+            ResultadoEjecucion ultimo = null;
+
+            try {
+                // Una ejecución de calentamiento para el JIT
+                descripcion.crear(laberinto).resolver(crearControl());
+
+                for (int r = 0; r < repeticiones; r++) {
+                    AlgoritmoLaberinto algoritmo = descripcion.crear(laberinto);
+                    ControlEjecucion control = crearControl();
+                    long bytesAntes = HILOS.getThreadAllocatedBytes(hiloId);
+                    long inicio = System.nanoTime();
+                    ultimo = algoritmo.resolver(control);
+                    tiempos[r] = System.nanoTime() - inicio;
+                    bytes[r] = HILOS.getThreadAllocatedBytes(hiloId) - bytesAntes;
+                }
+            } catch (StackOverflowError e) {
+                System.out.printf("%-42s %12s%n", nombre, "StackOverflowError");
+                continue;
+            }
+
+            System.out.printf("%-42s %12.2f %14d %10d %10d %8d%s%n",
+                nombre,
+                mediana(tiempos) / 1_000_000.0,
+                mediana(bytes) / 1024,
+                ultimo.getCeldasVisitadas(),
+                ultimo.getNodosExpandidos(),
+                ultimo.getLongitudCamino(),
+                ultimo.getMotorGanador() != null ? "  ganó " + ultimo.getMotorGanador() : "");
+        }
+        System.out.println();
+    }
+
+    /**
+     * Curva de aceleración del BFS paralelo: mediana de tiempo con 1, 2, 4...
+     * hilos, comparada con el BFS secuencial sobre el mismo laberinto
+     */
+    public void escalarBFSParalelo(String titulo, Laberinto laberinto, int repeticiones) {
+        int nucleos = Runtime.getRuntime().availableProcessors();
+        System.out.println("== Escalado BFS paralelo, " + titulo + " (" + nucleos + " núcleos) ==");
+        System.out.printf("%-28s %12s %12s%n", "Hilos", "Tiempo (ms)", "Aceleración");
+
+        long base = medirMediana(new BFS(laberinto), repeticiones);
+        System.out.printf("%-28s %12.2f %12.2f%n", "BFS secuencial", base / 1_000_000.0, 1.0);
+
+        for (int hilos = 1; hilos <= Math.max(4, nucleos); hilos *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(hilos);
+            try {
+                long tiempo = medirMediana(new BFSParalelo(laberinto, pool), repeticiones);
+                System.out.printf("%-28s %12.2f %12.2f%n", hilos, tiempo / 1_000_000.0, (double) base / tiempo);
+            } finally {
+                pool.shutdown();
+            }
+        }
+        System.out.println();
+    }
+
+    /**
+     * Caminos derecha/abajo: tabla de programación dinámica contra alcance por
+     * palabras de 64 bits
+     */
+    public void compararMonotono(int filas, int columnas, int repeticiones) {
+        System.out.println("== Derecha/abajo, " + filas + "x" + columnas + (registrarVisitas ? "" : ", sin traza") + " ==");
+        System.out.printf("%-28s %12s %12s %12s%n", "Laberinto", "DP (ms)", "Bits (ms)", "Aceleración");
+
+        double[] densidades = {0.0, 0.05, 0.2};
+        for (double densidad : densidades) {
+            Laberinto laberinto = new Laberinto(filas, columnas);
+            Random random = new Random(42);
+            for (int i = 1; i < laberinto.getTotalCeldas() - 1; i++) {
+                if (random.nextDouble() < densidad) laberinto.setPared(i, true);
+            }
+
+            RecursivoDosDirecciones dp = new RecursivoDosDirecciones(laberinto, false);
+            RecursivoDosDirecciones bits = new RecursivoDosDirecciones(laberinto, true);
+
+            long tiempoDP = medirMediana(dp, repeticiones);
+            long tiempoBits = medirMediana(bits, repeticiones);
+            System.out.printf("%-28s %12.2f %12.2f %12.2f%n",
+                "paredes " + (int) (densidad * 100) + "%",
+                tiempoDP / 1_000_000.0, tiempoBits / 1_000_000.0, (double) tiempoDP / tiempoBits);
+        }
+        System.out.println();
+    }
+
+    /**
+     * "¿Hay camino?": campo de distancias de MotorBFS contra el relleno por
+     * tramos de MotorOndaBits
+     */
+    public static void compararAlcance(String titulo, Laberinto laberinto, int repeticiones) {
+        System.out.println("== Alcance, " + titulo + " ==");
+        System.out.printf("%-28s %12s %12s%n", "Motor", "Tiempo (ms)", "Alcanzable");
+
+        int inicio = laberinto.getIndiceInicio();
+        int fin = laberinto.getIndiceFin();
+        MotorBFS bfs = new MotorBFS(laberinto);
+        MotorOndaBits bits = new MotorOndaBits(laberinto, true);
+
+        long[] tiempos = new long[repeticiones];
+        boolean alcanzable = false;
+        for (int r = 0; r <= repeticiones; r++) {
+            long tiempoInicio = System.nanoTime();
+            alcanzable = bfs.calcularDistancias(inicio)[fin] >= 0;
+            if (r > 0) tiempos[r - 1] = System.nanoTime() - tiempoInicio;
+        }
+        System.out.printf("%-28s %12.2f %12s%n", "BFS (distancias)", mediana(tiempos) / 1_000_000.0, alcanzable);
+
+        for (int r = 0; r <= repeticiones; r++) {
+            long tiempoInicio = System.nanoTime();
+            alcanzable = bits.hayCamino(inicio, fin);
+            if (r > 0) tiempos[r - 1] = System.nanoTime() - tiempoInicio;
+        }
+        System.out.printf("%-28s %12.2f %12s%n", "Bitboard (tramos)", mediana(tiempos) / 1_000_000.0, alcanzable);
+        System.out.println();
+    }
+
+    private long medirMediana(AlgoritmoLaberinto algoritmo, int repeticiones) {
+        algoritmo.resolver(crearControl());
+        long[] tiempos = new long[repeticiones];
+        for (int r = 0; r < repeticiones; r++) {
+            ControlEjecucion control = crearControl();
+            long inicio = System.nanoTime();
+            algoritmo.resolver(control);
+            tiempos[r] = System.nanoTime() - inicio;
+        }
+        return mediana(tiempos);
+    }
+
+    private static long mediana(long[] valores) {
+        long[] copia = valores.clone();
+        Arrays.sort(copia);
+        return copia[copia.length / 2];
+    }
+}
@@ -20,9 +20,15 @@ javac -d bin -cp "src;bin" src/controllers/*.java
 echo Compilando data...
 javac -d bin -cp "src;bin" src/data/*.java
 
+echo Compilando benchmark...
+javac -d bin -cp "src;bin" src/benchmark/*.java
+
 echo Compilando vistas...
 javac -d bin -cp "src;bin" src/views/*.java
 
+echo Copiando servicios...
+xcopy /e /i /y /q src\META-INF bin\META-INF >nul
+
 echo Compilando App...
 javac -d bin -cp "src;bin" App.java
 
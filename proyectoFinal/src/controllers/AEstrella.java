@@ -0,0 +1,194 @@
+package controllers;
+
+import model.*;
+
+/**
+ * A* - Búsqueda informada
+ * Expande primero la celda con menor f = g + h, donde g es la distancia desde
+ * el inicio y h una estimación (admisible) de la distancia que falta al fin.
+ * La frontera es un montículo binario indexado sobre índices de celda, así que
+ * no se crean nodos por celda y mejorar una distancia es un decrease-key.
+ */
+public class AEstrella implements AlgoritmoLaberinto {
+
+    /**
+     * Estimación de la distancia restante hasta el fin
+     */
+    public enum Heuristica {
+        /** |Δfila| + |Δcolumna|: exacta en una grilla sin paredes de 4 vecinos */
+        MANHATTAN,
+        /** h = 0: A* se comporta como Dijkstra (equivalente a BFS con costos unitarios) */
+        CERO
+    }
+
+    /**
+     * Criterio para ordenar celdas con el mismo valor de f
+     */
+    public enum Desempate {
+        /** Prefiere la celda más lejana al inicio: avanza hacia el fin y expande menos */
+        MAYOR_G,
+        /** Prefiere la celda más cercana al inicio */
+        MENOR_G,
+        /** Respeta el orden de llegada a la frontera */
+        LLEGADA
+    }
+
+    private Laberinto laberinto;
+    private Heuristica heuristica;
+    private Desempate desempate;
+    private String nombre;
+
+    private ContextoBusqueda contexto;
+    private MonticuloIndexado frontera;
+    private ListaEnteros ordenVisitas;
+    private boolean registrarVisitas;
+    private FlujoVisitas flujo;
+    private int celdasVisitadas;
+    private int nodosExpandidos;
+    private ControlEjecucion control;
+    private boolean detenido;
+    private int contadorLlegada;
+    private int filaFin;
+    private int columnaFin;
+
+    public AEstrella(Laberinto laberinto) {
+        this(laberinto, Heuristica.MANHATTAN, Desempate.MAYOR_G);
+    }
+
+    public AEstrella(Laberinto laberinto, Heuristica heuristica, Desempate desempate) {
+        this.laberinto = laberinto;
+        this.heuristica = heuristica;
+        this.desempate = desempate;
+        this.nombre = heuristica == Heuristica.MANHATTAN ? "A* (A-Star)" : "A* (heurística cero)";
+    }
+
+    @Override
+    public String getNombre() {
+        return nombre;
+    }
+
+    @Override
+    public ResultadoEjecucion resolver(ControlEjecucion control) {
+        ResultadoEjecucion resultado = new ResultadoEjecucion(nombre);
+        long tiempoInicio = System.nanoTime();
+
+        contexto = laberinto.tomarContexto();
+        if (frontera == null) {
+            frontera = new MonticuloIndexado(laberinto.getTotalCeldas());
+        }
+        frontera.limpiar();
+        ordenVisitas = new ListaEnteros();
+        celdasVisitadas = 0;
+        nodosExpandidos = 0;
+        this.control = control;
+        flujo = control.getFlujo();
+        registrarVisitas = control.isRegistrarVisitas() && flujo == null;
+        detenido = false;
+        contadorLlegada = 0;
+
+        int inicio = laberinto.getIndiceInicio();
+        int fin = laberinto.getIndiceFin();
+        filaFin = laberinto.getFila(fin);
+        columnaFin = laberinto.getColumna(fin);
+
+        if (buscar(inicio, fin)) {
+            resultado.setCamino(laberinto, contexto.reconstruirCamino(inicio, fin));
+            resultado.setEncontroSolucion(true);
+        }
+
+        resultado.setCeldasVisitadas(celdasVisitadas);
+        resultado.setNodosExpandidos(nodosExpandidos);
+        resultado.setOrdenVisitas(new VistaCeldas(laberinto, ordenVisitas));
+        if (detenido) resultado.setEstado(control.getMotivo());
+
+        laberinto.liberarContexto(contexto);
+
+        long tiempoNs = System.nanoTime() - tiempoInicio;
+        resultado.setTiempoEjecucionNs(tiempoNs);
+
+        return resultado;
+    }
+
+    private boolean buscar(int inicio, int fin) {
+        contexto.marcarVisitada(inicio);
+        contexto.setDistancia(inicio, 0);
+        celdasVisitadas++;
+        frontera.insertarODisminuir(inicio, prioridad(inicio, 0));
+
+        int filas = laberinto.getFilas();
+        int columnas = laberinto.getColumnas();
+
+        while (!frontera.estaVacio()) {
+            if (control.debeDetener(nodosExpandidos)) {
+                detenido = true;
+                return false;
+            }
+
+            int actual = frontera.sacarMinimo();
+            nodosExpandidos++;
+            if (registrarVisitas) ordenVisitas.agregar(actual);
+            else if (flujo != null) flujo.publicarVisita(actual);
+
+            if (actual == fin) {
+                return true;
+            }
+
+            // Ambas heurísticas son consistentes: una celda expandida ya tiene
+            // su distancia definitiva y no vuelve a entrar en la frontera
+            int g = contexto.getDistancia(actual) + 1;
+            int fila = actual / columnas;
+            int col = actual - fila * columnas;
+            if (fila > 0) relajar(actual - columnas, Laberinto.ARRIBA, g);
+            if (col < columnas - 1) relajar(actual + 1, Laberinto.DERECHA, g);
+            if (fila < filas - 1) relajar(actual + columnas, Laberinto.ABAJO, g);
+            if (col > 0) relajar(actual - 1, Laberinto.IZQUIERDA, g);
+        }
+
+        return false;
+    }
+
+    private void relajar(int vecino, int direccion, int g) {
+        if (laberinto.esPared(vecino)) return;
+
+        if (!contexto.isVisitada(vecino)) {
+            contexto.marcarVisitada(vecino);
+            celdasVisitadas++;
+        } else if (g >= contexto.getDistancia(vecino)) {
+            return;
+        }
+
+        contexto.setDistancia(vecino, g);
+        contexto.setDireccionLlegada(vecino, direccion);
+        frontera.insertarODisminuir(vecino, prioridad(vecino, g));
+    }
+
+    /**
+     * Clave del montículo: f en los 32 bits altos y el desempate en los bajos,
+     * así una sola comparación de long ordena por ambos criterios
+     */
+    private long prioridad(int indice, int g) {
+        long f = g + estimar(indice);
+        long secundario;
+        switch (desempate) {
+            case MAYOR_G:
+                secundario = Integer.MAX_VALUE - g;
+                break;
+            case MENOR_G:
+                secundario = g;
+                break;
+            default:
+                secundario = contadorLlegada++;
+                break;
+        }
+        return (f << 32) | secundario;
+    }
+
+    private int estimar(int indice) {
+        if (heuristica == Heuristica.CERO) return 0;
+        return Math.abs(laberinto.getFila(indice) - filaFin)
+             + Math.abs(laberinto.getColumna(indice) - columnaFin);
+    }
+
+    public Heuristica getHeuristica() { return heuristica; }
+    public Desempate getDesempate() { return desempate; }
+}
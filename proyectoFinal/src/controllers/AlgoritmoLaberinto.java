@@ -1,9 +1,12 @@
 package controllers;
 
+import model.ControlEjecucion;
 import model.ResultadoEjecucion;
 
 /**
- * Interfaz base para todos los algoritmos de resolución de laberintos
+ * Interfaz base para todos los algoritmos de resolución de laberintos.
+ * Las implementaciones solo leen el Laberinto: su estado de trabajo vive en
+ * un ContextoBusqueda propio de cada ejecución.
  */
 public interface AlgoritmoLaberinto {
     
@@ -11,11 +14,30 @@ public interface AlgoritmoLaberinto {
      * Resuelve el laberinto y retorna los resultados de la ejecución
      * @return ResultadoEjecucion con las métricas y el camino encontrado
      */
-    ResultadoEjecucion resolver();
+    default ResultadoEjecucion resolver() {
+        return resolver(ControlEjecucion.sinLimites());
+    }
+    
+    /**
+     * Resuelve el laberinto consultando el control en el bucle principal.
+     * Si el control pide detenerse, devuelve un resultado parcial (visitas y
+     * métricas hasta ese momento, sin camino) con el estado correspondiente.
+     * @param control cancelación, tiempo límite y presupuesto de nodos
+     * @return ResultadoEjecucion completo o parcial
+     */
+    ResultadoEjecucion resolver(ControlEjecucion control);
     
     /**
      * Obtiene el nombre descriptivo del algoritmo
      * @return String con el nombre del algoritmo
      */
     String getNombre();
+    
+    /**
+     * Indica si el algoritmo reparte su trabajo entre varios hilos; en una
+     * comparación paralela se ejecuta aparte para no competir con los demás
+     */
+    default boolean isParalelo() {
+        return false;
+    }
 }
\ No newline at end of file
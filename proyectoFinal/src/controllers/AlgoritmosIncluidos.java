@@ -0,0 +1,44 @@
+package controllers;
+
+import controllers.DescripcionAlgoritmo.Memoria;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Proveedor con los algoritmos del proyecto, en el orden de la interfaz
+ */
+public class AlgoritmosIncluidos implements ProveedorAlgoritmos {
+    // Enumera caminos simples: en una grilla abierta sin salida 6x6 tarda
+    // medio segundo y 7x7 ya no termina en 10 s
+    private static final int MAXIMO_RECURSIVO_4 = 36;
+    // Exponencial en el peor caso; con la cota exacta es casi lineal hasta este tamaño
+    private static final int MAXIMO_BACKTRACKING = 1_000_000;
+
+    @Override
+    public List<DescripcionAlgoritmo> getAlgoritmos() {
+        return Arrays.asList(
+            new DescripcionAlgoritmo("BFS (Breadth-First Search)", BFS::new,
+                true, Memoria.ENTEROS_POR_CELDA, false, DescripcionAlgoritmo.SIN_LIMITE),
+            new DescripcionAlgoritmo("A* (A-Star)", AEstrella::new,
+                true, Memoria.ENTEROS_POR_CELDA, false, DescripcionAlgoritmo.SIN_LIMITE),
+            new DescripcionAlgoritmo("BFS Bidireccional", BFSBidireccional::new,
+                true, Memoria.ENTEROS_POR_CELDA, false, DescripcionAlgoritmo.SIN_LIMITE),
+            new DescripcionAlgoritmo("BFS Paralelo", BFSParalelo::new,
+                true, Memoria.VARIAS_COPIAS, true, DescripcionAlgoritmo.SIN_LIMITE),
+            new DescripcionAlgoritmo("BFS Bitboard", BFSOndaBits::new,
+                true, Memoria.BITS_POR_CELDA, false, DescripcionAlgoritmo.SIN_LIMITE),
+            new DescripcionAlgoritmo("JPS (Jump Point Search)", JPS::new,
+                true, Memoria.ENTEROS_POR_CELDA, false, DescripcionAlgoritmo.SIN_LIMITE),
+            new DescripcionAlgoritmo("DFS (Depth-First Search)", DFS::new,
+                false, Memoria.ENTEROS_POR_CELDA, false, DescripcionAlgoritmo.SIN_LIMITE),
+            new DescripcionAlgoritmo("Recursivo 2 direcciones", RecursivoDosDirecciones::new,
+                false, Memoria.ENTEROS_POR_CELDA, false, DescripcionAlgoritmo.SIN_LIMITE),
+            new DescripcionAlgoritmo("Recursivo 4 direcciones", RecursivoCuatroDirecciones::new,
+                false, Memoria.ENTEROS_POR_CELDA, false, MAXIMO_RECURSIVO_4),
+            new DescripcionAlgoritmo("Recursivo 4 direcciones con backtracking", RecursivoBacktracking::new,
+                true, Memoria.ENTEROS_POR_CELDA, false, MAXIMO_BACKTRACKING),
+            new DescripcionAlgoritmo("Portafolio", ResolvedorPortafolio::new,
+                false, Memoria.VARIAS_COPIAS, true, DescripcionAlgoritmo.SIN_LIMITE, true)
+        );
+    }
+}
@@ -1,7 +1,6 @@
 package controllers;
 
 import model.*;
-import java.util.*;
 
 /**
  * BFS - Búsqueda en amplitud
@@ -9,17 +8,13 @@ import java.util.*;
  */
 public class BFS implements AlgoritmoLaberinto {
     private Laberinto laberinto;
-    private Map<Celda, Celda> padres;
-    private int celdasVisitadas;
+    private MotorBFS motor;
     private String nombre;
-    private List<Celda> ordenVisitas;
 
     public BFS(Laberinto laberinto) {
         this.laberinto = laberinto;
-        this.padres = new HashMap<>();
-        this.celdasVisitadas = 0;
+        this.motor = new MotorBFS(laberinto);
         this.nombre = "BFS (Breadth-First Search)";
-        this.ordenVisitas = new ArrayList<>();
     }
 
     @Override
@@ -28,73 +23,35 @@ public class BFS implements AlgoritmoLaberinto {
     }
 
     @Override
-    public ResultadoEjecucion resolver() {
+    public ResultadoEjecucion resolver(ControlEjecucion control) {
         ResultadoEjecucion resultado = new ResultadoEjecucion(nombre);
         long tiempoInicio = System.nanoTime();
 
-        laberinto.reiniciarVisitadas();
-        padres.clear();
-        celdasVisitadas = 0;
-        ordenVisitas.clear();
+        ContextoBusqueda contexto = laberinto.tomarContexto();
+        int inicio = laberinto.getIndiceInicio();
+        int fin = laberinto.getIndiceFin();
 
-        Queue<Celda> cola = new LinkedList<>();
-        Celda inicio = laberinto.getInicio();
-        Celda fin = laberinto.getFin();
-
-        cola.offer(inicio);
-        inicio.setVisitada(true);
-        celdasVisitadas++;
-        ordenVisitas.add(inicio);
-
-        boolean encontrado = false;
-
-        while (!cola.isEmpty() && !encontrado) {
-            Celda actual = cola.poll();
-
-            if (actual.equals(fin)) {
-                encontrado = true;
-                break;
-            }
-
-            List<Celda> vecinos = laberinto.getVecinosNoVisitados(actual);
-
-            for (Celda vecino : vecinos) {
-                vecino.setVisitada(true);
-                celdasVisitadas++;
-                padres.put(vecino, actual);
-                cola.offer(vecino);
-                ordenVisitas.add(vecino);
-            }
-        }
+        // Expansión en ondas con cola circular e índices primitivos
+        motor.setFlujo(control.getFlujo());
+        motor.setRegistrarVisitas(control.isRegistrarVisitas() && control.getFlujo() == null);
+        boolean encontrado = motor.buscar(contexto, inicio, fin, control);
 
         if (encontrado) {
-            List<Celda> camino = reconstruirCamino(fin);
-            resultado.setCamino(camino);
+            ListaEnteros camino = motor.reconstruirCamino(contexto, inicio, fin);
+            resultado.setCamino(laberinto, camino);
             resultado.setEncontroSolucion(true);
-
-            for (Celda celda : camino) {
-                celda.setEnCamino(true);
-            }
         }
 
-        resultado.setCeldasVisitadas(celdasVisitadas);
-        resultado.setOrdenVisitas(new ArrayList<>(ordenVisitas));
+        resultado.setCeldasVisitadas(motor.getCeldasVisitadas());
+        resultado.setNodosExpandidos(motor.getNodosExpandidos());
+        resultado.setOrdenVisitas(new VistaCeldas(laberinto, motor.getOrdenVisitas()));
+        if (motor.isDetenido()) resultado.setEstado(control.getMotivo());
+
+        laberinto.liberarContexto(contexto);
 
         long tiempoNs = System.nanoTime() - tiempoInicio;
         resultado.setTiempoEjecucionNs(tiempoNs);
 
         return resultado;
     }
-
-    private List<Celda> reconstruirCamino(Celda fin) {
-        List<Celda> camino = new ArrayList<>();
-        Celda actual = fin;
-
-        while (actual != null) {
-            camino.add(0, actual);
-            actual = padres.get(actual);
-        }
-
-        return camino;
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,190 @@
+package controllers;
+
+import model.*;
+
+/**
+ * BFS bidireccional
+ * Hace crecer una frontera desde el inicio y otra desde el fin, expandiendo
+ * siempre un nivel completo de la frontera más chica, y une el camino donde
+ * se encuentran. En laberintos abiertos explora del orden de dos círculos de
+ * radio L/2 en lugar de uno de radio L.
+ *
+ * Cada lado usa su propio ContextoBusqueda (visitadas, distancias y
+ * direcciones de llegada), tomados del mismo pool que el resto de algoritmos.
+ */
+public class BFSBidireccional implements AlgoritmoLaberinto {
+    private static final int SIN_ENCUENTRO = -1;
+
+    private Laberinto laberinto;
+    private String nombre;
+    private ColaEnteros colaInicio;
+    private ColaEnteros colaFin;
+    private ListaEnteros ordenVisitas;
+    private boolean registrarVisitas;
+    private FlujoVisitas flujo;
+    private int celdasVisitadas;
+    private int expansionesInicio;
+    private int expansionesFin;
+    private int encuentro;
+    private int longitudEncuentro;
+    private ControlEjecucion control;
+    private boolean detenido;
+
+    public BFSBidireccional(Laberinto laberinto) {
+        this.laberinto = laberinto;
+        this.nombre = "BFS Bidireccional";
+        this.colaInicio = new ColaEnteros();
+        this.colaFin = new ColaEnteros();
+    }
+
+    @Override
+    public String getNombre() {
+        return nombre;
+    }
+
+    @Override
+    public ResultadoEjecucion resolver(ControlEjecucion control) {
+        ResultadoEjecucion resultado = new ResultadoEjecucion(nombre);
+        long tiempoInicio = System.nanoTime();
+
+        ContextoBusqueda desdeInicio = laberinto.tomarContexto();
+        ContextoBusqueda desdeFin = laberinto.tomarContexto();
+        colaInicio.limpiar();
+        colaFin.limpiar();
+        ordenVisitas = new ListaEnteros();
+        celdasVisitadas = 0;
+        expansionesInicio = 0;
+        expansionesFin = 0;
+        encuentro = SIN_ENCUENTRO;
+        longitudEncuentro = Integer.MAX_VALUE;
+        this.control = control;
+        flujo = control.getFlujo();
+        registrarVisitas = control.isRegistrarVisitas() && flujo == null;
+        detenido = false;
+
+        int inicio = laberinto.getIndiceInicio();
+        int fin = laberinto.getIndiceFin();
+
+        if (buscar(desdeInicio, desdeFin, inicio, fin)) {
+            resultado.setCamino(laberinto, unirCamino(desdeInicio, desdeFin, inicio, fin));
+            resultado.setEncontroSolucion(true);
+        }
+
+        resultado.setCeldasVisitadas(celdasVisitadas);
+        resultado.setNodosExpandidos(expansionesInicio + expansionesFin);
+        resultado.setExpansionesPorLado(expansionesInicio, expansionesFin);
+        resultado.setOrdenVisitas(new VistaCeldas(laberinto, ordenVisitas));
+        if (detenido) resultado.setEstado(control.getMotivo());
+
+        laberinto.liberarContexto(desdeInicio);
+        laberinto.liberarContexto(desdeFin);
+
+        long tiempoNs = System.nanoTime() - tiempoInicio;
+        resultado.setTiempoEjecucionNs(tiempoNs);
+
+        return resultado;
+    }
+
+    private boolean buscar(ContextoBusqueda desdeInicio, ContextoBusqueda desdeFin, int inicio, int fin) {
+        sembrar(desdeInicio, colaInicio, inicio);
+        if (inicio == fin) {
+            encuentro = inicio;
+            return true;
+        }
+        sembrar(desdeFin, colaFin, fin);
+
+        while (!colaInicio.estaVacia() && !colaFin.estaVacia()) {
+            // Expandir el nivel completo de la frontera más chica; terminar el
+            // nivel garantiza que el mejor encuentro registrado sea el más corto
+            if (colaInicio.tamano() <= colaFin.tamano()) {
+                expansionesInicio += expandirNivel(colaInicio, desdeInicio, desdeFin);
+            } else {
+                expansionesFin += expandirNivel(colaFin, desdeFin, desdeInicio);
+            }
+
+            // Un nivel cortado a la mitad no garantiza el encuentro más corto
+            if (detenido) {
+                return false;
+            }
+            if (encuentro != SIN_ENCUENTRO) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private void sembrar(ContextoBusqueda contexto, ColaEnteros cola, int origen) {
+        contexto.marcarVisitada(origen);
+        contexto.setDistancia(origen, 0);
+        cola.agregar(origen);
+        celdasVisitadas++;
+        if (registrarVisitas) ordenVisitas.agregar(origen);
+        else if (flujo != null) flujo.publicarVisita(origen);
+    }
+
+    private int expandirNivel(ColaEnteros cola, ContextoBusqueda propio, ContextoBusqueda otro) {
+        int filas = laberinto.getFilas();
+        int columnas = laberinto.getColumnas();
+        int nivel = cola.tamano();
+
+        for (int i = 0; i < nivel; i++) {
+            if (control.debeDetener(expansionesInicio + expansionesFin + i)) {
+                detenido = true;
+                return i;
+            }
+
+            int actual = cola.sacar();
+            int g = propio.getDistancia(actual) + 1;
+
+            // Vecinos en orden arriba, derecha, abajo, izquierda
+            int fila = actual / columnas;
+            int col = actual - fila * columnas;
+            if (fila > 0) visitar(cola, propio, otro, actual - columnas, Laberinto.ARRIBA, g);
+            if (col < columnas - 1) visitar(cola, propio, otro, actual + 1, Laberinto.DERECHA, g);
+            if (fila < filas - 1) visitar(cola, propio, otro, actual + columnas, Laberinto.ABAJO, g);
+            if (col > 0) visitar(cola, propio, otro, actual - 1, Laberinto.IZQUIERDA, g);
+        }
+
+        return nivel;
+    }
+
+    private void visitar(ColaEnteros cola, ContextoBusqueda propio, ContextoBusqueda otro,
+                         int vecino, int direccion, int g) {
+        if (laberinto.esPared(vecino) || propio.isVisitada(vecino)) return;
+
+        propio.marcarVisitada(vecino);
+        propio.setDistancia(vecino, g);
+        propio.setDireccionLlegada(vecino, direccion);
+        cola.agregar(vecino);
+        celdasVisitadas++;
+        if (registrarVisitas) ordenVisitas.agregar(vecino);
+        else if (flujo != null) flujo.publicarVisita(vecino);
+
+        // La celda ya la alcanzó el otro lado: las fronteras se tocan
+        if (otro.isVisitada(vecino)) {
+            int longitud = g + otro.getDistancia(vecino);
+            if (longitud < longitudEncuentro) {
+                longitudEncuentro = longitud;
+                encuentro = vecino;
+            }
+        }
+    }
+
+    /**
+     * Camino inicio -> encuentro con las direcciones del lado del inicio, y
+     * encuentro -> fin siguiendo hacia atrás las del lado del fin
+     */
+    private ListaEnteros unirCamino(ContextoBusqueda desdeInicio, ContextoBusqueda desdeFin, int inicio, int fin) {
+        ListaEnteros camino = desdeInicio.reconstruirCamino(inicio, encuentro);
+        int actual = encuentro;
+
+        while (actual != fin) {
+            int direccion = desdeFin.getDireccionLlegada(actual);
+            actual = laberinto.getVecino(actual, Laberinto.direccionOpuesta(direccion));
+            camino.agregar(actual);
+        }
+
+        return camino;
+    }
+}
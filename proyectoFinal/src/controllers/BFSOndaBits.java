@@ -0,0 +1,62 @@
+package controllers;
+
+import model.*;
+
+/**
+ * BFS por tableros de bits
+ * Misma distancia que BFS, pero avanza la onda de a 64 celdas con
+ * MotorOndaBits. Conviene para preguntas de alcance y distancia en grillas
+ * grandes; el orden de visitas es por niveles y, dentro de cada nivel, por filas.
+ */
+public class BFSOndaBits implements AlgoritmoLaberinto {
+    private Laberinto laberinto;
+    private MotorOndaBits motor;
+    private String nombre;
+
+    public BFSOndaBits(Laberinto laberinto) {
+        this(laberinto, false);
+    }
+
+    /**
+     * @param dosNiveles true para guardar solo dos fronteras y una etiqueta
+     *                   de 2 bits por celda (memoria acotada)
+     */
+    public BFSOndaBits(Laberinto laberinto, boolean dosNiveles) {
+        this.laberinto = laberinto;
+        this.motor = new MotorOndaBits(laberinto, dosNiveles);
+        this.nombre = dosNiveles ? "BFS Bitboard (dos niveles)" : "BFS Bitboard";
+    }
+
+    @Override
+    public String getNombre() {
+        return nombre;
+    }
+
+    @Override
+    public ResultadoEjecucion resolver(ControlEjecucion control) {
+        ResultadoEjecucion resultado = new ResultadoEjecucion(nombre);
+        long tiempoInicio = System.nanoTime();
+
+        int inicio = laberinto.getIndiceInicio();
+        int fin = laberinto.getIndiceFin();
+
+        if (motor.calcularDistancia(inicio, fin, control) != MotorOndaBits.SIN_CAMINO) {
+            resultado.setCamino(laberinto, motor.reconstruirCamino());
+            resultado.setEncontroSolucion(true);
+        }
+
+        resultado.setCeldasVisitadas(motor.contarVisitadas());
+        FlujoVisitas flujo = control.getFlujo();
+        if (flujo != null) {
+            motor.recorrerVisitas(flujo::publicarVisita);
+        } else if (control.isRegistrarVisitas()) {
+            resultado.setOrdenVisitas(new VistaCeldas(laberinto, motor.listarVisitas()));
+        }
+        if (motor.isDetenido()) resultado.setEstado(control.getMotivo());
+
+        long tiempoNs = System.nanoTime() - tiempoInicio;
+        resultado.setTiempoEjecucionNs(tiempoNs);
+
+        return resultado;
+    }
+}
@@ -0,0 +1,228 @@
+package controllers;
+
+import model.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * BFS paralelo sincronizado por niveles
+ * Cada nivel de la frontera se reparte en bloques que procesa un ForkJoinPool.
+ * Las celdas se reclaman con un compareAndSet sobre un conjunto de bits
+ * atómico (AtomicLongArray), así cada celda entra una sola vez a la frontera
+ * aunque varios hilos la alcancen a la vez. Cada bloque escribe sus
+ * descubrimientos en su propio buffer y al final del nivel los buffers se
+ * concatenan en orden, sin sincronizar la siguiente frontera.
+ *
+ * Los caminos tienen la misma longitud que BFS; si dos hilos alcanzan una
+ * celda en el mismo nivel, el padre que queda depende de cuál gana el CAS.
+ */
+public class BFSParalelo implements AlgoritmoLaberinto {
+    // Por debajo de este tamaño de frontera no conviene repartir el nivel
+    private static final int UMBRAL_PARALELO = 4096;
+    private static final int BLOQUES_POR_HILO = 4;
+
+    private Laberinto laberinto;
+    private ForkJoinPool pool;
+    private String nombre;
+
+    private AtomicLongArray visitadas;
+    private byte[] direcciones;
+    private ListaEnteros frontera;
+    private ListaEnteros siguiente;
+    private ListaEnteros[] buffers;
+    private ListaEnteros ordenVisitas;
+
+    public BFSParalelo(Laberinto laberinto) {
+        this(laberinto, ForkJoinPool.commonPool());
+    }
+
+    public BFSParalelo(Laberinto laberinto, ForkJoinPool pool) {
+        this.laberinto = laberinto;
+        this.pool = pool;
+        this.nombre = "BFS Paralelo";
+        this.buffers = new ListaEnteros[pool.getParallelism() * BLOQUES_POR_HILO];
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = new ListaEnteros();
+        }
+    }
+
+    @Override
+    public String getNombre() {
+        return nombre;
+    }
+
+    @Override
+    public boolean isParalelo() {
+        return true;
+    }
+
+    @Override
+    public ResultadoEjecucion resolver(ControlEjecucion control) {
+        ResultadoEjecucion resultado = new ResultadoEjecucion(nombre);
+        long tiempoInicio = System.nanoTime();
+
+        int total = laberinto.getTotalCeldas();
+        visitadas = new AtomicLongArray((total + 63) >>> 6);
+        direcciones = new byte[total];
+        frontera = new ListaEnteros();
+        siguiente = new ListaEnteros();
+        ordenVisitas = new ListaEnteros();
+
+        int inicio = laberinto.getIndiceInicio();
+        int fin = laberinto.getIndiceFin();
+        int nodosExpandidos = 0;
+        int celdasVisitadas = 1;
+        boolean registrarVisitas = control.isRegistrarVisitas();
+
+        reclamar(inicio);
+        frontera.agregar(inicio);
+        if (registrarVisitas) ordenVisitas.agregar(inicio);
+        boolean encontrado = inicio == fin;
+        boolean detenido = false;
+
+        while (!encontrado && !frontera.estaVacia()) {
+            // Se consulta una vez por nivel: un nivel ya cuesta mucho más que leer el reloj
+            if (control.debeDetenerAhora(nodosExpandidos)) {
+                detenido = true;
+                break;
+            }
+
+            nodosExpandidos += frontera.tamano();
+            expandirNivel();
+            celdasVisitadas += siguiente.tamano();
+            if (registrarVisitas) ordenVisitas.agregarTodos(siguiente);
+
+            ListaEnteros temporal = frontera;
+            frontera = siguiente;
+            siguiente = temporal;
+            encontrado = estaVisitada(fin);
+        }
+
+        if (encontrado) {
+            resultado.setCamino(laberinto, reconstruirCamino(inicio, fin));
+            resultado.setEncontroSolucion(true);
+        }
+
+        resultado.setCeldasVisitadas(celdasVisitadas);
+        resultado.setNodosExpandidos(nodosExpandidos);
+        resultado.setOrdenVisitas(new VistaCeldas(laberinto, ordenVisitas));
+        if (detenido) resultado.setEstado(control.getMotivo());
+
+        long tiempoNs = System.nanoTime() - tiempoInicio;
+        resultado.setTiempoEjecucionNs(tiempoNs);
+
+        return resultado;
+    }
+
+    /**
+     * Expande la frontera actual y deja la siguiente en el campo siguiente
+     */
+    private void expandirNivel() {
+        siguiente.limpiar();
+
+        if (frontera.tamano() < UMBRAL_PARALELO) {
+            expandirRango(0, frontera.tamano(), siguiente);
+            return;
+        }
+
+        pool.invoke(new TareaNivel(0, buffers.length));
+        for (ListaEnteros buffer : buffers) {
+            siguiente.agregarTodos(buffer);
+        }
+    }
+
+    private void expandirRango(int desde, int hasta, ListaEnteros destino) {
+        int filas = laberinto.getFilas();
+        int columnas = laberinto.getColumnas();
+
+        for (int i = desde; i < hasta; i++) {
+            int actual = frontera.get(i);
+
+            // Vecinos en orden arriba, derecha, abajo, izquierda
+            int fila = actual / columnas;
+            int col = actual - fila * columnas;
+            if (fila > 0) visitar(actual - columnas, Laberinto.ARRIBA, destino);
+            if (col < columnas - 1) visitar(actual + 1, Laberinto.DERECHA, destino);
+            if (fila < filas - 1) visitar(actual + columnas, Laberinto.ABAJO, destino);
+            if (col > 0) visitar(actual - 1, Laberinto.IZQUIERDA, destino);
+        }
+    }
+
+    private void visitar(int vecino, int direccion, ListaEnteros destino) {
+        if (laberinto.esPared(vecino) || !reclamar(vecino)) return;
+
+        // Solo el hilo que ganó el CAS escribe la dirección de esta celda
+        direcciones[vecino] = (byte) direccion;
+        destino.agregar(vecino);
+    }
+
+    /**
+     * Marca la celda como visitada; devuelve false si otro hilo ya la tenía
+     */
+    private boolean reclamar(int indice) {
+        int palabra = indice >>> 6;
+        long bit = 1L << indice;
+        long valor = visitadas.get(palabra);
+
+        while ((valor & bit) == 0) {
+            if (visitadas.compareAndSet(palabra, valor, valor | bit)) {
+                return true;
+            }
+            valor = visitadas.get(palabra);
+        }
+
+        return false;
+    }
+
+    private boolean estaVisitada(int indice) {
+        return (visitadas.get(indice >>> 6) & (1L << indice)) != 0;
+    }
+
+    private ListaEnteros reconstruirCamino(int inicio, int fin) {
+        ListaEnteros camino = new ListaEnteros();
+        int actual = fin;
+
+        camino.agregar(actual);
+        while (actual != inicio) {
+            actual = laberinto.getVecino(actual, Laberinto.direccionOpuesta(direcciones[actual]));
+            camino.agregar(actual);
+        }
+
+        camino.invertir();
+        return camino;
+    }
+
+    /**
+     * Reparte los bloques [desde, hasta) del nivel; cada bloque es un tramo
+     * contiguo de la frontera con su propio buffer de salida
+     */
+    private class TareaNivel extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int desde;
+        private final int hasta;
+
+        TareaNivel(int desde, int hasta) {
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde == 1) {
+                ListaEnteros buffer = buffers[desde];
+                buffer.limpiar();
+                int tamano = frontera.tamano();
+                expandirRango(
+                    (int) ((long) tamano * desde / buffers.length),
+                    (int) ((long) tamano * (desde + 1) / buffers.length),
+                    buffer);
+                return;
+            }
+
+            int medio = (desde + hasta) >>> 1;
+            invokeAll(new TareaNivel(desde, medio), new TareaNivel(medio, hasta));
+        }
+    }
+}
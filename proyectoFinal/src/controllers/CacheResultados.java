@@ -0,0 +1,231 @@
+package controllers;
+
+import model.*;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Caché LRU de resultados completos.
+ * La clave es el contenido del laberinto: su hash Zobrist (Laberinto.getHash),
+ * dimensiones, inicio y fin, más el nombre del algoritmo. Editar una celda,
+ * mover el inicio o el fin o generar otro laberinto cambia la clave, así que
+ * una entrada vieja nunca se entrega para un laberinto distinto; si el
+ * cambio se deshace la entrada vuelve a servir. Las que no se usan salen
+ * por LRU.
+ *
+ * Se guardan solo los índices del camino y de las visitas (int[] exactos),
+ * no el ResultadoEjecucion con su copia del laberinto; al acertar se arma un
+ * resultado nuevo sobre el laberinto consultado, que tiene el mismo
+ * contenido. La memoria se acota por la suma estimada de bytes de las
+ * entradas: al superarla se desalojan las menos usadas recientemente.
+ *
+ * Los métodos son synchronized: la consultan el hilo de Swing y los hilos de
+ * trabajo. Dos laberintos distintos con el mismo hash de 64 bits darían un
+ * falso acierto; con las dimensiones y extremos en la clave es despreciable.
+ */
+public class CacheResultados {
+    // Objeto, clave, arreglos y nombre de cada entrada, aparte de los índices
+    private static final long BYTES_FIJOS_ENTRADA = 256;
+
+    private final LinkedHashMap<Clave, Entrada> entradas = new LinkedHashMap<>(16, 0.75f, true);
+    private long maximoBytes;
+    private long bytesUsados;
+    private long aciertos;
+    private long fallos;
+    private long desalojos;
+    private long rechazados;
+
+    /**
+     * @param maximoBytes memoria máxima estimada de todas las entradas
+     */
+    public CacheResultados(long maximoBytes) {
+        this.maximoBytes = Math.max(0, maximoBytes);
+    }
+
+    private static final class Clave {
+        private final long hash;
+        private final int filas;
+        private final int columnas;
+        private final int inicio;
+        private final int fin;
+        private final String algoritmo;
+
+        Clave(String algoritmo, Laberinto laberinto) {
+            this.hash = laberinto.getHash();
+            this.filas = laberinto.getFilas();
+            this.columnas = laberinto.getColumnas();
+            this.inicio = laberinto.getIndiceInicio();
+            this.fin = laberinto.getIndiceFin();
+            this.algoritmo = algoritmo;
+        }
+
+        @Override
+        public boolean equals(Object otro) {
+            if (!(otro instanceof Clave)) return false;
+            Clave clave = (Clave) otro;
+            return hash == clave.hash && filas == clave.filas && columnas == clave.columnas
+                && inicio == clave.inicio && fin == clave.fin && algoritmo.equals(clave.algoritmo);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(hash, filas, columnas, inicio, fin, algoritmo);
+        }
+    }
+
+    /**
+     * Métricas de un resultado, sin objetos Celda
+     */
+    private static final class Entrada {
+        private final String nombreAlgoritmo;
+        private final long tiempoNs;
+        private final long tiempoCpuNs;
+        private final int celdasVisitadas;
+        private final int nodosExpandidos;
+        private final int expansionesDesdeInicio;
+        private final int expansionesDesdeFin;
+        private final boolean encontroSolucion;
+        private final String motorGanador;
+        private final boolean usoProgramacionDinamica;
+        private final int cachesUtilizados;
+        private final int tamanoCache;
+        private final int[] camino;
+        private final int[] visitas;
+
+        Entrada(ResultadoEjecucion resultado) {
+            this.nombreAlgoritmo = resultado.getNombreAlgoritmo();
+            this.tiempoNs = resultado.getTiempoEjecucionNs();
+            this.tiempoCpuNs = resultado.getTiempoCpuNs();
+            this.celdasVisitadas = resultado.getCeldasVisitadas();
+            this.nodosExpandidos = resultado.getNodosExpandidos();
+            this.expansionesDesdeInicio = resultado.getExpansionesDesdeInicio();
+            this.expansionesDesdeFin = resultado.getExpansionesDesdeFin();
+            this.encontroSolucion = resultado.isEncontroSolucion();
+            this.motorGanador = resultado.getMotorGanador();
+            this.usoProgramacionDinamica = resultado.isUsoProgramacionDinamica();
+            this.cachesUtilizados = resultado.getCachesUtilizados();
+            this.tamanoCache = resultado.getTamanoCache();
+            this.camino = aIndices(resultado.getCamino());
+            this.visitas = aIndices(resultado.getOrdenVisitas());
+        }
+
+        long getBytes() {
+            return BYTES_FIJOS_ENTRADA + 4L * (camino.length + visitas.length);
+        }
+
+        ResultadoEjecucion crearResultado(Laberinto laberinto) {
+            ResultadoEjecucion resultado = new ResultadoEjecucion(nombreAlgoritmo);
+            resultado.setTiempoEjecucionNs(tiempoNs);
+            resultado.setTiempoCpuNs(tiempoCpuNs);
+            resultado.setCeldasVisitadas(celdasVisitadas);
+            resultado.setNodosExpandidos(nodosExpandidos);
+            resultado.setExpansionesPorLado(expansionesDesdeInicio, expansionesDesdeFin);
+            resultado.setEncontroSolucion(encontroSolucion);
+            resultado.setMotorGanador(motorGanador);
+            resultado.setUsoProgramacionDinamica(usoProgramacionDinamica);
+            resultado.setCachesUtilizados(cachesUtilizados);
+            resultado.setTamanoCache(tamanoCache);
+            resultado.setCamino(laberinto, ListaEnteros.deArreglo(camino));
+            resultado.setOrdenVisitas(new VistaCeldas(laberinto, ListaEnteros.deArreglo(visitas)));
+            resultado.setDesdeCache(true);
+            return resultado;
+        }
+
+        private static int[] aIndices(List<Celda> celdas) {
+            if (celdas instanceof VistaCeldas) {
+                return ((VistaCeldas) celdas).getIndices().aArreglo();
+            }
+            if (celdas instanceof CaminoCompacto) {
+                return ((CaminoCompacto) celdas).getIndices().aArreglo();
+            }
+            int[] indices = new int[celdas.size()];
+            for (int i = 0; i < indices.length; i++) {
+                indices[i] = celdas.get(i).getIndice();
+            }
+            return indices;
+        }
+    }
+
+    /**
+     * Resultado guardado para este algoritmo y este contenido de laberinto,
+     * como un ResultadoEjecucion nuevo sobre el laberinto dado (isDesdeCache);
+     * null si no hay
+     */
+    public synchronized ResultadoEjecucion buscar(String algoritmo, Laberinto laberinto) {
+        Entrada entrada = entradas.get(new Clave(algoritmo, laberinto));
+        if (entrada == null) {
+            fallos++;
+            return null;
+        }
+        aciertos++;
+        return entrada.crearResultado(laberinto);
+    }
+
+    /**
+     * Guarda el resultado de una ejecución sobre laberinto. Los resultados
+     * interrumpidos son parciales y no se guardan, ni los que solos superan
+     * la memoria máxima. Uno sin traza (animado desde un FlujoVisitas o
+     * medido sin registrar visitas) se guarda igual: al reusarlo solo se
+     * anima el camino.
+     */
+    public synchronized void guardar(String algoritmo, Laberinto laberinto, ResultadoEjecucion resultado) {
+        if (resultado.isInterrumpido() || resultado.isDesdeCache()) return;
+
+        Entrada entrada = new Entrada(resultado);
+        if (entrada.getBytes() > maximoBytes) {
+            rechazados++;
+            return;
+        }
+        Entrada anterior = entradas.put(new Clave(algoritmo, laberinto), entrada);
+        if (anterior != null) {
+            bytesUsados -= anterior.getBytes();
+        }
+        bytesUsados += entrada.getBytes();
+        desalojarExcedente();
+    }
+
+    /**
+     * Cambia la memoria máxima; si baja se desalojan entradas ya mismo
+     */
+    public synchronized void setMaximoBytes(long maximoBytes) {
+        this.maximoBytes = Math.max(0, maximoBytes);
+        desalojarExcedente();
+    }
+
+    private void desalojarExcedente() {
+        Iterator<Map.Entry<Clave, Entrada>> iterador = entradas.entrySet().iterator();
+        while (bytesUsados > maximoBytes && iterador.hasNext()) {
+            bytesUsados -= iterador.next().getValue().getBytes();
+            iterador.remove();
+            desalojos++;
+        }
+    }
+
+    /**
+     * Vacía la caché sin reiniciar las estadísticas
+     */
+    public synchronized void limpiar() {
+        entradas.clear();
+        bytesUsados = 0;
+    }
+
+    public synchronized long getMaximoBytes() { return maximoBytes; }
+    public synchronized long getBytesUsados() { return bytesUsados; }
+    public synchronized int getEntradas() { return entradas.size(); }
+    public synchronized long getAciertos() { return aciertos; }
+    public synchronized long getFallos() { return fallos; }
+    /** Entradas sacadas para respetar la memoria máxima */
+    public synchronized long getDesalojos() { return desalojos; }
+    /** Resultados que no se guardaron por ser más grandes que la memoria máxima */
+    public synchronized long getRechazados() { return rechazados; }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("caché: %d aciertos, %d fallos, %d desalojos, %d entradas, %.1f de %.1f MB",
+            aciertos, fallos, desalojos, entradas.size(),
+            bytesUsados / (1024.0 * 1024), maximoBytes / (1024.0 * 1024));
+    }
+}
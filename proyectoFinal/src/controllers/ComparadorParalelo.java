@@ -0,0 +1,139 @@
+package controllers;
+
+import model.*;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Ejecuta varios algoritmos a la vez sobre el mismo laberinto.
+ * Los algoritmos solo leen el laberinto y toman su propio ContextoBusqueda
+ * de la reserva (que es concurrente), así que comparten la instancia sin
+ * copiarla. Se usa un hilo por núcleo como máximo para que cada tarea tenga
+ * un procesador propio.
+ *
+ * Aislamiento de las mediciones:
+ * - cada tarea crea su control hijo al empezar, así el tiempo límite corre
+ *   desde que el algoritmo arranca y no desde que entró a la cola;
+ * - además del tiempo de reloj se registra el tiempo de CPU del hilo que
+ *   resolvió, que no cuenta las esperas si hay más tareas que núcleos;
+ * - los algoritmos que reparten trabajo entre hilos (isParalelo) se ejecutan
+ *   solos al final, cuando el resto ya terminó.
+ */
+public class ComparadorParalelo {
+    private static final ThreadMXBean HILOS = ManagementFactory.getThreadMXBean();
+
+    private final int hilos;
+
+    public ComparadorParalelo() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public ComparadorParalelo(int hilos) {
+        this.hilos = Math.max(1, hilos);
+    }
+
+    /**
+     * @param algoritmos algoritmos a comparar, todos sobre el mismo laberinto
+     * @param lote control del lote: cancelarlo detiene todas las tareas
+     * @param tiempoLimiteMs límite de cada algoritmo (0 = sin límite)
+     * @param alTerminar se llama desde el hilo de la tarea con cada resultado
+     *                   (puede ser null)
+     * @return los resultados en el mismo orden que los algoritmos; si el lote
+     *         se cancela faltan los que no llegaron a empezar
+     */
+    public List<ResultadoEjecucion> ejecutar(List<AlgoritmoLaberinto> algoritmos, ControlEjecucion lote,
+                                             long tiempoLimiteMs, Consumer<ResultadoEjecucion> alTerminar)
+            throws InterruptedException {
+        ResultadoEjecucion[] resultados = new ResultadoEjecucion[algoritmos.size()];
+        List<Future<ResultadoEjecucion>> tareas = new ArrayList<>();
+        List<Integer> posiciones = new ArrayList<>();
+
+        ExecutorService ejecutor = Executors.newFixedThreadPool(
+            Math.min(hilos, Math.max(1, algoritmos.size())), crearFabricaHilos());
+        try {
+            for (int i = 0; i < algoritmos.size(); i++) {
+                AlgoritmoLaberinto algoritmo = algoritmos.get(i);
+                if (algoritmo.isParalelo()) continue;
+                tareas.add(ejecutor.submit(() -> medir(algoritmo, lote, tiempoLimiteMs, alTerminar)));
+                posiciones.add(i);
+            }
+
+            for (int t = 0; t < tareas.size(); t++) {
+                resultados[posiciones.get(t)] = esperar(tareas.get(t));
+            }
+        } finally {
+            ejecutor.shutdownNow();
+        }
+
+        // Los paralelos, de a uno y con todos los núcleos libres
+        for (int i = 0; i < algoritmos.size() && !lote.isCancelado(); i++) {
+            if (algoritmos.get(i).isParalelo()) {
+                resultados[i] = medir(algoritmos.get(i), lote, tiempoLimiteMs, alTerminar);
+            }
+        }
+
+        List<ResultadoEjecucion> lista = new ArrayList<>();
+        for (ResultadoEjecucion resultado : resultados) {
+            if (resultado != null) lista.add(resultado);
+        }
+        return lista;
+    }
+
+    private static ResultadoEjecucion medir(AlgoritmoLaberinto algoritmo, ControlEjecucion lote,
+                                            long tiempoLimiteMs, Consumer<ResultadoEjecucion> alTerminar) {
+        // Cancelado antes de salir de la cola: no hay nada que medir
+        if (lote.isCancelado()) return null;
+
+        ControlEjecucion control = new ControlEjecucion(lote);
+        if (tiempoLimiteMs > 0) control.setTiempoLimiteMs(tiempoLimiteMs);
+
+        long cpuAntes = tiempoCpuHilo();
+        ResultadoEjecucion resultado = algoritmo.resolver(control);
+        long cpuDespues = tiempoCpuHilo();
+        if (cpuAntes >= 0 && cpuDespues >= 0) {
+            resultado.setTiempoCpuNs(cpuDespues - cpuAntes);
+        }
+
+        if (alTerminar != null) alTerminar.accept(resultado);
+        return resultado;
+    }
+
+    /**
+     * Tiempo de CPU del hilo actual en nanosegundos, o -1 si la JVM no lo mide
+     */
+    private static long tiempoCpuHilo() {
+        return HILOS.isCurrentThreadCpuTimeSupported() ? HILOS.getCurrentThreadCpuTime() : -1;
+    }
+
+    /**
+     * Espera una tarea; los errores del algoritmo se relanzan tal cual
+     */
+    private static ResultadoEjecucion esperar(Future<ResultadoEjecucion> tarea) throws InterruptedException {
+        try {
+            return tarea.get();
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof RuntimeException) throw (RuntimeException) causa;
+            if (causa instanceof Error) throw (Error) causa;
+            throw new IllegalStateException(causa);
+        }
+    }
+
+    private static ThreadFactory crearFabricaHilos() {
+        AtomicInteger numero = new AtomicInteger();
+        return tarea -> {
+            Thread hilo = new Thread(tarea, "comparador-" + numero.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        };
+    }
+}
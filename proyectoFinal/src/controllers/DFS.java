@@ -1,25 +1,33 @@
 package controllers;
 
 import model.*;
-import java.util.*;
 
 /**
  * DFS - Búsqueda en profundidad
- * Explora profundamente antes de retroceder
+ * Explora profundamente antes de retroceder.
+ * Usa una pila explícita de índices (celda y direcciones pendientes) en lugar
+ * de la pila de llamadas, así la profundidad no depende del tamaño del stack.
  */
 public class DFS implements AlgoritmoLaberinto {
     private Laberinto laberinto;
+    private ContextoBusqueda contexto;
     private int celdasVisitadas;
     private String nombre;
-    private List<Celda> ordenVisitas;
-    private List<Celda> caminoFinal;
+    private ListaEnteros ordenVisitas;
+    private boolean registrarVisitas;
+    private FlujoVisitas flujo;
+    private ListaEnteros pilaCeldas;
+    private ListaEnteros pilaPendientes;
     private boolean encontrado;
+    private ControlEjecucion control;
+    private boolean detenido;
 
     public DFS(Laberinto laberinto) {
         this.laberinto = laberinto;
         this.celdasVisitadas = 0;
         this.nombre = "DFS (Depth-First Search)";
-        this.ordenVisitas = new ArrayList<>();
+        this.pilaCeldas = new ListaEnteros();
+        this.pilaPendientes = new ListaEnteros();
     }
 
     @Override
@@ -28,34 +36,38 @@ public class DFS implements AlgoritmoLaberinto {
     }
 
     @Override
-    public ResultadoEjecucion resolver() {
+    public ResultadoEjecucion resolver(ControlEjecucion control) {
         ResultadoEjecucion resultado = new ResultadoEjecucion(nombre);
         long tiempoInicio = System.nanoTime();
 
-        laberinto.reiniciarVisitadas();
+        contexto = laberinto.tomarContexto();
         celdasVisitadas = 0;
-        ordenVisitas.clear();
-        caminoFinal = null;
+        ordenVisitas = new ListaEnteros();
+        pilaCeldas.limpiar();
+        pilaPendientes.limpiar();
         encontrado = false;
+        this.control = control;
+        flujo = control.getFlujo();
+        registrarVisitas = control.isRegistrarVisitas() && flujo == null;
+        detenido = false;
 
-        Celda inicio = laberinto.getInicio();
-        Celda fin = laberinto.getFin();
+        int inicio = laberinto.getIndiceInicio();
+        int fin = laberinto.getIndiceFin();
 
         // Iniciar búsqueda profunda
-        List<Celda> caminoActual = new ArrayList<>();
-        buscarDFS(inicio, fin, caminoActual);
+        buscarDFS(inicio, fin);
 
-        if (caminoFinal != null) {
-            resultado.setCamino(caminoFinal);
+        if (encontrado) {
+            // La pila de celdas es exactamente el camino desde el inicio
+            resultado.setCamino(laberinto, pilaCeldas.copiar());
             resultado.setEncontroSolucion(true);
-
-            for (Celda celda : caminoFinal) {
-                celda.setEnCamino(true);
-            }
         }
 
         resultado.setCeldasVisitadas(celdasVisitadas);
-        resultado.setOrdenVisitas(new ArrayList<>(ordenVisitas));
+        resultado.setOrdenVisitas(new VistaCeldas(laberinto, ordenVisitas));
+        if (detenido) resultado.setEstado(control.getMotivo());
+
+        laberinto.liberarContexto(contexto);
 
         long tiempoNs = System.nanoTime() - tiempoInicio;
         resultado.setTiempoEjecucionNs(tiempoNs);
@@ -63,28 +75,49 @@ public class DFS implements AlgoritmoLaberinto {
         return resultado;
     }
 
-    private void buscarDFS(Celda actual, Celda fin, List<Celda> caminoActual) {
-        if (encontrado) return;
+    private void buscarDFS(int inicio, int fin) {
+        entrar(inicio, fin);
 
-        actual.setVisitada(true);
+        while (!encontrado && !pilaCeldas.estaVacia()) {
+            if (control.debeDetener(celdasVisitadas)) {
+                detenido = true;
+                return;
+            }
+
+            int tope = pilaPendientes.tamano() - 1;
+            int pendientes = pilaPendientes.get(tope);
+
+            // Sin direcciones pendientes: retroceder
+            if (pendientes == 0) {
+                pilaCeldas.quitarUltimo();
+                pilaPendientes.quitarUltimo();
+                continue;
+            }
+
+            int direccion = Integer.numberOfTrailingZeros(pendientes);
+            pilaPendientes.set(tope, pendientes & (pendientes - 1));
+            entrar(laberinto.getVecino(pilaCeldas.getUltimo(), direccion), fin);
+        }
+    }
+
+    /**
+     * Equivale a una llamada recursiva: visita la celda y la apila junto con
+     * sus vecinos no visitados (máscara tomada antes de descender)
+     */
+    private void entrar(int actual, int fin) {
+        contexto.setVisitada(actual, true);
         celdasVisitadas++;
-        caminoActual.add(actual);
-        ordenVisitas.add(actual);
+        if (registrarVisitas) ordenVisitas.agregar(actual);
+        else if (flujo != null) flujo.publicarVisita(actual);
+        pilaCeldas.agregar(actual);
 
         // Si llegamos al fin
-        if (actual.equals(fin)) {
+        if (actual == fin) {
             encontrado = true;
-            caminoFinal = new ArrayList<>(caminoActual);
+            pilaPendientes.agregar(0);
             return;
         }
 
-        // Explorar vecinos profundamente
-        List<Celda> vecinos = laberinto.getVecinosNoVisitados(actual);
-        for (Celda vecino : vecinos) {
-            buscarDFS(vecino, fin, caminoActual);
-            if (encontrado) return;
-        }
-
-        caminoActual.remove(caminoActual.size() - 1);
+        pilaPendientes.agregar(contexto.getMascaraNoVisitados(actual));
     }
 }
\ No newline at end of file
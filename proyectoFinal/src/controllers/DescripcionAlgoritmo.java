@@ -0,0 +1,103 @@
+package controllers;
+
+import model.Laberinto;
+import java.util.function.Function;
+
+/**
+ * Entrada del registro de algoritmos: cómo crear el algoritmo sobre un
+ * laberinto y lo que se sabe de él de antemano, para que la interfaz y los
+ * bancos de prueba elijan sin conocer las clases concretas.
+ */
+public class DescripcionAlgoritmo {
+    /** Sin tamaño máximo recomendado */
+    public static final int SIN_LIMITE = Integer.MAX_VALUE;
+
+    /**
+     * Memoria de trabajo según el tamaño del laberinto
+     */
+    public enum Memoria {
+        /** Unos pocos bits por celda (marcas, conjuntos de bits) */
+        BITS_POR_CELDA,
+        /** Uno o más enteros por celda (colas, distancias, padres) */
+        ENTEROS_POR_CELDA,
+        /** Varias copias del estado: una por hilo o por motor */
+        VARIAS_COPIAS
+    }
+
+    private final String nombre;
+    private final Function<Laberinto, AlgoritmoLaberinto> fabrica;
+    private final boolean optimo;
+    private final Memoria memoria;
+    private final boolean paralelo;
+    private final int maximoCeldas;
+    private final boolean compuesto;
+
+    /**
+     * @param nombre nombre que se muestra en la interfaz (único en el registro)
+     * @param fabrica crea una instancia del algoritmo sobre el laberinto
+     * @param optimo true si el camino que devuelve es siempre uno de los más cortos
+     * @param memoria clase de memoria de trabajo
+     * @param paralelo true si reparte el trabajo entre varios hilos
+     * @param maximoCeldas tamaño máximo recomendado en celdas, o SIN_LIMITE
+     */
+    public DescripcionAlgoritmo(String nombre, Function<Laberinto, AlgoritmoLaberinto> fabrica,
+                                boolean optimo, Memoria memoria, boolean paralelo, int maximoCeldas) {
+        this(nombre, fabrica, optimo, memoria, paralelo, maximoCeldas, false);
+    }
+
+    /**
+     * @param compuesto true si combina otros algoritmos del registro (no
+     *                  entra en las comparaciones, que ya corren a cada uno)
+     */
+    public DescripcionAlgoritmo(String nombre, Function<Laberinto, AlgoritmoLaberinto> fabrica,
+                                boolean optimo, Memoria memoria, boolean paralelo, int maximoCeldas,
+                                boolean compuesto) {
+        this.nombre = nombre;
+        this.fabrica = fabrica;
+        this.optimo = optimo;
+        this.memoria = memoria;
+        this.paralelo = paralelo;
+        this.maximoCeldas = maximoCeldas;
+        this.compuesto = compuesto;
+    }
+
+    public AlgoritmoLaberinto crear(Laberinto laberinto) {
+        return fabrica.apply(laberinto);
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public boolean isOptimo() {
+        return optimo;
+    }
+
+    public Memoria getMemoria() {
+        return memoria;
+    }
+
+    public boolean isParalelo() {
+        return paralelo;
+    }
+
+    public int getMaximoCeldas() {
+        return maximoCeldas;
+    }
+
+    public boolean isCompuesto() {
+        return compuesto;
+    }
+
+    /**
+     * Indica si el laberinto no supera el tamaño máximo recomendado
+     */
+    public boolean isRecomendadoPara(Laberinto laberinto) {
+        return laberinto.getTotalCeldas() <= maximoCeldas;
+    }
+
+    @Override
+    public String toString() {
+        return nombre;
+    }
+}
@@ -0,0 +1,290 @@
+package controllers;
+
+import model.*;
+
+/**
+ * JPS - Jump Point Search para la grilla de 4 vecinos
+ * A* que no encola cada celda de un tramo recto: salta hasta el próximo
+ * "punto de salto" (el fin, o una celda donde el camino se ve obligado a
+ * girar) y solo ese punto entra en la frontera.
+ *
+ * Orden canónico usado: un tramo horizontal solo gira a vertical cuando la
+ * celda de atrás en esa dirección es pared (vecino forzado); desde un tramo
+ * vertical siempre se puede girar, por eso cada paso vertical prueba los dos
+ * saltos horizontales. Los saltos horizontales leen la fila de a 64 celdas
+ * con Laberinto.getParedes64.
+ */
+public class JPS implements AlgoritmoLaberinto {
+    private static final int SIN_SALTO = -1;
+
+    private Laberinto laberinto;
+    private String nombre;
+    private int filas;
+    private int columnas;
+    private int destino;
+
+    private ContextoBusqueda contexto;
+    private MonticuloIndexado frontera;
+    private ListaEnteros ordenVisitas;
+    private boolean registrarVisitas;
+    private FlujoVisitas flujo;
+    private int celdasVisitadas;
+    private int nodosExpandidos;
+    private ControlEjecucion control;
+    private boolean detenido;
+
+    public JPS(Laberinto laberinto) {
+        this.laberinto = laberinto;
+        this.nombre = "JPS (Jump Point Search)";
+    }
+
+    @Override
+    public String getNombre() {
+        return nombre;
+    }
+
+    @Override
+    public ResultadoEjecucion resolver(ControlEjecucion control) {
+        ResultadoEjecucion resultado = new ResultadoEjecucion(nombre);
+        long tiempoInicio = System.nanoTime();
+
+        contexto = laberinto.tomarContexto();
+        if (frontera == null) {
+            frontera = new MonticuloIndexado(laberinto.getTotalCeldas());
+        }
+        frontera.limpiar();
+        ordenVisitas = new ListaEnteros();
+        celdasVisitadas = 0;
+        nodosExpandidos = 0;
+        this.control = control;
+        flujo = control.getFlujo();
+        registrarVisitas = control.isRegistrarVisitas() && flujo == null;
+        detenido = false;
+        filas = laberinto.getFilas();
+        columnas = laberinto.getColumnas();
+
+        int inicio = laberinto.getIndiceInicio();
+        destino = laberinto.getIndiceFin();
+
+        if (buscar(inicio)) {
+            resultado.setCamino(laberinto, reconstruirCamino(inicio));
+            resultado.setEncontroSolucion(true);
+        }
+
+        // En JPS las celdas visitadas son los puntos de salto descubiertos
+        resultado.setCeldasVisitadas(celdasVisitadas);
+        resultado.setNodosExpandidos(nodosExpandidos);
+        resultado.setOrdenVisitas(new VistaCeldas(laberinto, ordenVisitas));
+        if (detenido) resultado.setEstado(control.getMotivo());
+
+        laberinto.liberarContexto(contexto);
+
+        long tiempoNs = System.nanoTime() - tiempoInicio;
+        resultado.setTiempoEjecucionNs(tiempoNs);
+
+        return resultado;
+    }
+
+    private boolean buscar(int inicio) {
+        contexto.marcarVisitada(inicio);
+        contexto.setDistancia(inicio, 0);
+        contexto.setPadre(inicio, ContextoBusqueda.SIN_PADRE);
+        celdasVisitadas++;
+        frontera.insertarODisminuir(inicio, prioridad(inicio, 0));
+
+        while (!frontera.estaVacio()) {
+            if (control.debeDetener(nodosExpandidos)) {
+                detenido = true;
+                return false;
+            }
+
+            int actual = frontera.sacarMinimo();
+            nodosExpandidos++;
+            if (registrarVisitas) ordenVisitas.agregar(actual);
+            else if (flujo != null) flujo.publicarVisita(actual);
+
+            if (actual == destino) {
+                return true;
+            }
+
+            expandir(actual);
+        }
+
+        return false;
+    }
+
+    /**
+     * Genera los sucesores de un punto de salto según la dirección con la que
+     * se llegó a él (sin padre: las cuatro direcciones)
+     */
+    private void expandir(int actual) {
+        int padre = contexto.getPadre(actual);
+        int fila = actual / columnas;
+
+        if (padre == ContextoBusqueda.SIN_PADRE) {
+            agregarSucesor(actual, saltarVertical(actual, -1));
+            agregarSucesor(actual, saltarHorizontal(actual, 1));
+            agregarSucesor(actual, saltarVertical(actual, 1));
+            agregarSucesor(actual, saltarHorizontal(actual, -1));
+        } else if (padre / columnas == fila) {
+            // Llegó en horizontal: sigue recto y gira solo hacia vecinos forzados
+            int dx = actual > padre ? 1 : -1;
+            agregarSucesor(actual, saltarHorizontal(actual, dx));
+            if (esForzado(actual, dx, -1)) agregarSucesor(actual, saltarVertical(actual, -1));
+            if (esForzado(actual, dx, 1)) agregarSucesor(actual, saltarVertical(actual, 1));
+        } else {
+            // Llegó en vertical: sigue recto y puede girar a ambos lados
+            int dy = actual > padre ? 1 : -1;
+            agregarSucesor(actual, saltarVertical(actual, dy));
+            agregarSucesor(actual, saltarHorizontal(actual, 1));
+            agregarSucesor(actual, saltarHorizontal(actual, -1));
+        }
+    }
+
+    private void agregarSucesor(int actual, int salto) {
+        if (salto == SIN_SALTO) return;
+
+        int g = contexto.getDistancia(actual) + distanciaRecta(actual, salto);
+        if (!contexto.isVisitada(salto)) {
+            contexto.marcarVisitada(salto);
+            celdasVisitadas++;
+        } else if (g >= contexto.getDistancia(salto)) {
+            return;
+        }
+
+        contexto.setDistancia(salto, g);
+        contexto.setPadre(salto, actual);
+        frontera.insertarODisminuir(salto, prioridad(salto, g));
+    }
+
+    /**
+     * Avanzando en horizontal con sentido dx, la celda de arriba/abajo (dy) es
+     * un vecino forzado si está libre y la de atrás en esa fila es pared
+     */
+    private boolean esForzado(int indice, int dx, int dy) {
+        int fila = indice / columnas;
+        if (fila + dy < 0 || fila + dy >= filas) return false;
+        int lateral = indice + dy * columnas;
+        return !laberinto.esPared(lateral) && laberinto.esPared(lateral - dx);
+    }
+
+    /**
+     * Avanza en vertical desde indice. Se detiene en el fin o en la primera
+     * celda desde la que un salto horizontal encuentra un punto de salto.
+     */
+    private int saltarVertical(int indice, int dy) {
+        int fila = indice / columnas;
+        int paso = dy * columnas;
+
+        while (true) {
+            fila += dy;
+            indice += paso;
+            if (fila < 0 || fila >= filas || laberinto.esPared(indice)) return SIN_SALTO;
+            if (indice == destino) return indice;
+            if (saltarHorizontal(indice, 1) != SIN_SALTO || saltarHorizontal(indice, -1) != SIN_SALTO) {
+                return indice;
+            }
+        }
+    }
+
+    /**
+     * Avanza en horizontal desde indice hasta el fin, una celda con vecino
+     * forzado o una pared/borde (SIN_SALTO), procesando 64 celdas por vuelta
+     */
+    private int saltarHorizontal(int indice, int dx) {
+        int fila = indice / columnas;
+        int inicioFila = fila * columnas;
+        int finFila = inicioFila + columnas;
+        boolean hayArriba = fila > 0;
+        boolean hayAbajo = fila < filas - 1;
+
+        if (dx > 0) {
+            int base = indice + 1;
+            while (base < finFila) {
+                int bloque = Math.min(64, finFila - base);
+                long mascara = bloque == 64 ? -1L : (1L << bloque) - 1;
+                long paredes = laberinto.getParedes64(base) & mascara;
+                long paradas = 0;
+                // Libre al lado y pared detrás de ese lado (la celda base - 1 existe en la fila)
+                if (hayArriba) {
+                    paradas |= ~laberinto.getParedes64(base - columnas) & laberinto.getParedes64(base - 1 - columnas);
+                }
+                if (hayAbajo) {
+                    paradas |= ~laberinto.getParedes64(base + columnas) & laberinto.getParedes64(base - 1 + columnas);
+                }
+                if (destino >= base && destino < base + bloque) {
+                    paradas |= 1L << (destino - base);
+                }
+                paradas &= mascara;
+
+                int primeraParada = Long.numberOfTrailingZeros(paradas);
+                if (primeraParada < Long.numberOfTrailingZeros(paredes)) return base + primeraParada;
+                if (paredes != 0) return SIN_SALTO;
+                base += bloque;
+            }
+        } else {
+            int tope = indice - 1;
+            while (tope >= inicioFila) {
+                int bloque = Math.min(64, tope - inicioFila + 1);
+                int base = tope - bloque + 1;
+                long mascara = bloque == 64 ? -1L : (1L << bloque) - 1;
+                long paredes = laberinto.getParedes64(base) & mascara;
+                long paradas = 0;
+                // Igual que hacia la derecha, pero "detrás" es la celda siguiente (tope + 1 existe)
+                if (hayArriba) {
+                    paradas |= ~laberinto.getParedes64(base - columnas) & laberinto.getParedes64(base + 1 - columnas);
+                }
+                if (hayAbajo) {
+                    paradas |= ~laberinto.getParedes64(base + columnas) & laberinto.getParedes64(base + 1 + columnas);
+                }
+                if (destino >= base && destino <= tope) {
+                    paradas |= 1L << (destino - base);
+                }
+                paradas &= mascara;
+
+                // Se recorre de derecha a izquierda: gana el bit más alto
+                int ultimaParada = 63 - Long.numberOfLeadingZeros(paradas);
+                if (ultimaParada > 63 - Long.numberOfLeadingZeros(paredes)) return base + ultimaParada;
+                if (paredes != 0) return SIN_SALTO;
+                tope = base - 1;
+            }
+        }
+
+        return SIN_SALTO;
+    }
+
+    private int distanciaRecta(int desde, int hasta) {
+        int diferencia = Math.abs(hasta - desde);
+        return desde / columnas == hasta / columnas ? diferencia : diferencia / columnas;
+    }
+
+    private long prioridad(int indice, int g) {
+        long f = g + Math.abs(indice / columnas - destino / columnas)
+                   + Math.abs(indice % columnas - destino % columnas);
+        // Desempate por mayor g, como en AEstrella
+        return (f << 32) | (Integer.MAX_VALUE - g);
+    }
+
+    /**
+     * Recorre los padres desde el fin y rellena las celdas de cada tramo recto
+     */
+    private ListaEnteros reconstruirCamino(int inicio) {
+        ListaEnteros camino = new ListaEnteros();
+        int actual = destino;
+        camino.agregar(actual);
+
+        while (actual != inicio) {
+            int padre = contexto.getPadre(actual);
+            int paso = padre / columnas == actual / columnas
+                ? (padre > actual ? 1 : -1)
+                : (padre > actual ? columnas : -columnas);
+            while (actual != padre) {
+                actual += paso;
+                camino.agregar(actual);
+            }
+        }
+
+        camino.invertir();
+        return camino;
+    }
+}
@@ -0,0 +1,183 @@
+package controllers;
+
+import model.*;
+import java.util.function.IntConsumer;
+
+/**
+ * Alcance de caminos monótonos (solo derecha y abajo) de a 64 celdas.
+ * Cada fila de la región que queda abajo y a la derecha del inicio se guarda
+ * como palabras long alineadas a la fila (bit c = columna c de la región).
+ * Una fila se obtiene de la anterior en O(columnas / 64):
+ * <pre>
+ *   semillas = alcanceArriba & libres          (bajar)
+ *   alcance  = (((libres + semillas) ^ libres) | semillas) & libres
+ * </pre>
+ * La suma propaga cada semilla hacia la derecha a lo largo de su tramo de
+ * celdas libres (el acarreo se corta en la primera pared), igual que el
+ * relleno de un tablero de bits. El bit 63 de una palabra pasa como semilla
+ * al bit 0 de la siguiente.
+ *
+ * El fin se alcanza pero no se expande, como en el recorrido en profundidad
+ * de RecursivoDosDirecciones: no está en las palabras (se lleva aparte en
+ * finAlcanzado), así no siembra a su derecha ni abajo y las celdas contadas
+ * son las mismas que las visitadas por ese recorrido.
+ *
+ * El control se consulta una vez por fila; si corta, quedan calculadas (y se
+ * cuentan y listan) solo las filas anteriores.
+ */
+public class MotorAlcanceMonotono {
+    private final Laberinto laberinto;
+    private long[] alcance;
+    private int filaInicio;
+    private int colInicio;
+    private int alto;
+    private int ancho;
+    private int palabras;
+    private int filaFin; // Relativas a la región; negativas si el fin queda fuera
+    private int colFin;
+    private boolean finAlcanzado;
+    private boolean detenido;
+
+    public MotorAlcanceMonotono(Laberinto laberinto) {
+        this.laberinto = laberinto;
+    }
+
+    /**
+     * calcular sin límites
+     */
+    public boolean calcular(int inicio, int fin) {
+        return calcular(inicio, fin, ControlEjecucion.sinLimites());
+    }
+
+    /**
+     * Calcula qué celdas de la región se alcanzan desde el inicio yendo solo
+     * a la derecha o abajo, sin pasar por el fin
+     * @return true si el fin es alcanzable (false también si el control cortó,
+     *         ver isDetenido)
+     */
+    public boolean calcular(int inicio, int fin, ControlEjecucion control) {
+        detenido = false;
+        finAlcanzado = false;
+        filaInicio = laberinto.getFila(inicio);
+        colInicio = laberinto.getColumna(inicio);
+        alto = laberinto.getFilas() - filaInicio;
+        ancho = laberinto.getColumnas() - colInicio;
+        // Fin arriba o a la izquierda: fuera de la región, no hay camino monótono
+        filaFin = laberinto.getFila(fin) - filaInicio;
+        colFin = laberinto.getColumna(fin) - colInicio;
+
+        palabras = (ancho + 63) >>> 6;
+        if (alcance == null || alcance.length < alto * palabras) {
+            alcance = new long[alto * palabras];
+        }
+
+        for (int f = 0; f < alto; f++) {
+            // Una consulta por fila, con las celdas de las filas ya hechas como nodos
+            if (control.debeDetener((long) f * ancho)) {
+                detenido = true;
+                alto = f;
+                return false;
+            }
+
+            int base = laberinto.indice(filaInicio + f, colInicio);
+            int fila = f * palabras;
+            long acarreo = f == 0 ? 1L : 0L; // La celda de inicio es la semilla de la primera fila
+
+            for (int w = 0; w < palabras; w++) {
+                int resto = ancho - (w << 6);
+                long mascara = resto >= 64 ? -1L : (1L << resto) - 1;
+                long libres = ~laberinto.getParedes64(base + (w << 6)) & mascara;
+                long semillas = f == 0 ? acarreo : alcance[fila - palabras + w] | acarreo;
+
+                // El fin sale de las libres: se detecta si le llega una semilla
+                // desde arriba o desde su izquierda, pero no propaga
+                long bitFin = f == filaFin && colFin >= 0 && (colFin >>> 6) == w ? 1L << colFin : 0;
+                long propagables = libres & ~bitFin;
+                long alcanzadas = (((propagables + (semillas & propagables)) ^ propagables)
+                    | (semillas & propagables)) & propagables;
+                if ((bitFin & libres & (semillas | (alcanzadas << 1))) != 0) {
+                    finAlcanzado = true;
+                }
+
+                alcance[fila + w] = alcanzadas;
+                acarreo = alcanzadas >>> 63;
+            }
+        }
+
+        return finAlcanzado;
+    }
+
+    /**
+     * true si el último calcular lo cortó el control (resultado parcial)
+     */
+    public boolean isDetenido() {
+        return detenido;
+    }
+
+    private boolean esAlcanzable(int f, int c) {
+        if (f == filaFin && c == colFin) return finAlcanzado;
+        return (alcance[f * palabras + (c >>> 6)] & (1L << c)) != 0;
+    }
+
+    /**
+     * Camino del inicio al fin (llamar solo si calcular devolvió true).
+     * Se arma hacia atrás prefiriendo venir desde arriba, lo que da el
+     * mismo camino que avanzar prefiriendo la derecha.
+     */
+    public ListaEnteros reconstruirCamino() {
+        ListaEnteros camino = new ListaEnteros(filaFin + colFin + 1);
+        int f = filaFin;
+        int c = colFin;
+
+        camino.agregar(laberinto.indice(filaInicio + f, colInicio + c));
+        while (f != 0 || c != 0) {
+            if (f > 0 && esAlcanzable(f - 1, c)) {
+                f--;
+            } else {
+                c--;
+            }
+            camino.agregar(laberinto.indice(filaInicio + f, colInicio + c));
+        }
+
+        camino.invertir();
+        return camino;
+    }
+
+    /**
+     * Cantidad de celdas alcanzables de la región (popcount por palabra)
+     */
+    public int contarAlcanzables() {
+        int total = finAlcanzado ? 1 : 0;
+        for (int i = 0; i < alto * palabras; i++) {
+            total += Long.bitCount(alcance[i]);
+        }
+        return total;
+    }
+
+    /**
+     * Celdas alcanzables de la región, fila por fila
+     */
+    public ListaEnteros listarAlcanzables() {
+        ListaEnteros celdas = new ListaEnteros();
+        recorrerAlcanzables(celdas::agregar);
+        return celdas;
+    }
+
+    /**
+     * Entrega las celdas alcanzables en el mismo orden que listarAlcanzables,
+     * sin guardarlas
+     */
+    public void recorrerAlcanzables(IntConsumer destino) {
+        for (int f = 0; f < alto; f++) {
+            int base = laberinto.indice(filaInicio + f, colInicio);
+            for (int w = 0; w < palabras; w++) {
+                long bits = alcance[f * palabras + w];
+                if (finAlcanzado && f == filaFin && (colFin >>> 6) == w) bits |= 1L << colFin;
+                while (bits != 0) {
+                    destino.accept(base + (w << 6) + Long.numberOfTrailingZeros(bits));
+                    bits &= bits - 1;
+                }
+            }
+        }
+    }
+}
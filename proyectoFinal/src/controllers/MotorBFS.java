@@ -0,0 +1,166 @@
+package controllers;
+
+import model.*;
+import java.util.Arrays;
+
+/**
+ * Motor de BFS sobre arreglos primitivos.
+ * La cola es un buffer circular de índices (ColaEnteros), los padres se guardan
+ * como la dirección de llegada de 2 bits en el ContextoBusqueda y el camino se
+ * reconstruye en tiempo lineal. No crea objetos por celda expandida.
+ *
+ * Lo usan BFS y cualquier algoritmo que necesite un recorrido en amplitud.
+ */
+public class MotorBFS {
+    private final Laberinto laberinto;
+    private final ColaEnteros cola;
+    private ListaEnteros ordenVisitas;
+    private boolean registrarVisitas;
+    private FlujoVisitas flujo;
+    private int celdasVisitadas;
+    private int nodosExpandidos;
+    private boolean detenido;
+
+    public MotorBFS(Laberinto laberinto) {
+        this.laberinto = laberinto;
+        this.cola = new ColaEnteros();
+        this.registrarVisitas = true;
+    }
+
+    /**
+     * Recorre en amplitud desde origen hasta alcanzar destino.
+     * Con un destino inexistente (por ejemplo -1) recorre toda la componente.
+     * @return true si se alcanzó el destino
+     */
+    public boolean buscar(ContextoBusqueda contexto, int origen, int destino) {
+        return buscar(contexto, origen, destino, ControlEjecucion.sinLimites());
+    }
+
+    /**
+     * Igual que buscar, pero corta cuando el control lo pide (ver isDetenido)
+     */
+    public boolean buscar(ContextoBusqueda contexto, int origen, int destino, ControlEjecucion control) {
+        cola.limpiar();
+        detenido = false;
+        ordenVisitas = new ListaEnteros();
+        celdasVisitadas = 0;
+        nodosExpandidos = 0;
+
+        cola.agregar(origen);
+        contexto.setVisitada(origen, true);
+        celdasVisitadas++;
+        if (registrarVisitas) ordenVisitas.agregar(origen);
+        else if (flujo != null) flujo.publicarVisita(origen);
+
+        int filas = laberinto.getFilas();
+        int columnas = laberinto.getColumnas();
+
+        while (!cola.estaVacia()) {
+            if (control.debeDetener(nodosExpandidos)) {
+                detenido = true;
+                return false;
+            }
+
+            int actual = cola.sacar();
+            nodosExpandidos++;
+
+            if (actual == destino) {
+                return true;
+            }
+
+            // Vecinos en orden arriba, derecha, abajo, izquierda
+            int fila = actual / columnas;
+            int col = actual - fila * columnas;
+            if (fila > 0) visitar(contexto, actual - columnas, Laberinto.ARRIBA);
+            if (col < columnas - 1) visitar(contexto, actual + 1, Laberinto.DERECHA);
+            if (fila < filas - 1) visitar(contexto, actual + columnas, Laberinto.ABAJO);
+            if (col > 0) visitar(contexto, actual - 1, Laberinto.IZQUIERDA);
+        }
+
+        return false;
+    }
+
+    private void visitar(ContextoBusqueda contexto, int vecino, int direccion) {
+        if (laberinto.esPared(vecino) || contexto.isVisitada(vecino)) return;
+
+        contexto.marcarVisitada(vecino);
+        contexto.setDireccionLlegada(vecino, direccion);
+        celdasVisitadas++;
+        cola.agregar(vecino);
+        if (registrarVisitas) ordenVisitas.agregar(vecino);
+        else if (flujo != null) flujo.publicarVisita(vecino);
+    }
+
+    /**
+     * Distancia en pasos desde origen a cada celda (-1 si no es alcanzable).
+     * Los movimientos son reversibles, así que con origen = fin se obtiene la
+     * distancia exacta de cada celda al fin (un BFS inverso). La propia tabla
+     * marca las celdas visitadas, por eso no usa un ContextoBusqueda.
+     */
+    public int[] calcularDistancias(int origen) {
+        int[] distancias = new int[laberinto.getTotalCeldas()];
+        Arrays.fill(distancias, -1);
+        cola.limpiar();
+        celdasVisitadas = 0;
+        nodosExpandidos = 0;
+
+        if (laberinto.esPared(origen)) return distancias;
+
+        distancias[origen] = 0;
+        cola.agregar(origen);
+        celdasVisitadas++;
+
+        int filas = laberinto.getFilas();
+        int columnas = laberinto.getColumnas();
+
+        while (!cola.estaVacia()) {
+            int actual = cola.sacar();
+            nodosExpandidos++;
+            int siguiente = distancias[actual] + 1;
+
+            int fila = actual / columnas;
+            int col = actual - fila * columnas;
+            if (fila > 0) medir(distancias, actual - columnas, siguiente);
+            if (col < columnas - 1) medir(distancias, actual + 1, siguiente);
+            if (fila < filas - 1) medir(distancias, actual + columnas, siguiente);
+            if (col > 0) medir(distancias, actual - 1, siguiente);
+        }
+
+        return distancias;
+    }
+
+    private void medir(int[] distancias, int vecino, int distancia) {
+        if (distancias[vecino] >= 0 || laberinto.esPared(vecino)) return;
+
+        distancias[vecino] = distancia;
+        celdasVisitadas++;
+        cola.agregar(vecino);
+    }
+
+    /**
+     * Reconstruye el camino de origen a destino (ver ContextoBusqueda.reconstruirCamino)
+     */
+    public ListaEnteros reconstruirCamino(ContextoBusqueda contexto, int origen, int destino) {
+        return contexto.reconstruirCamino(origen, destino);
+    }
+
+    /**
+     * Permite desactivar el registro del orden de visitas (por ejemplo en
+     * mediciones donde no se va a animar el resultado)
+     */
+    public void setRegistrarVisitas(boolean registrarVisitas) {
+        this.registrarVisitas = registrarVisitas;
+    }
+
+    /**
+     * Flujo donde publicar las visitas que no se registran (null = ninguno)
+     */
+    public void setFlujo(FlujoVisitas flujo) {
+        this.flujo = flujo;
+    }
+
+    public ListaEnteros getOrdenVisitas() { return ordenVisitas; }
+    public int getCeldasVisitadas() { return celdasVisitadas; }
+    public int getNodosExpandidos() { return nodosExpandidos; }
+    public boolean isDetenido() { return detenido; }
+}
@@ -0,0 +1,478 @@
+package controllers;
+
+import model.*;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Frente de onda por tableros de bits (BFS de a 64 celdas).
+ * La grilla se guarda como bitsets por fila (palabras long alineadas a la
+ * fila): celdas libres, visitadas y la frontera actual. Cada nivel avanza las
+ * cuatro direcciones a la vez con desplazamientos:
+ * <pre>
+ *   siguiente = (arriba | abajo | frontera << 1 | frontera >>> 1) & libres & ~visitadas
+ * </pre>
+ * y solo recorre las filas con frontera (y sus vecinas), en el rango de
+ * palabras donde hay bits.
+ *
+ * Para reconstruir el camino hay dos modos:
+ * - Completo: guarda cada nivel en forma dispersa (palabras no nulas), en
+ *   total como mucho una entrada por celda alcanzada, y retrocede desde el
+ *   fin buscando un vecino en el nivel anterior.
+ * - Dos niveles: solo conserva la frontera actual y la siguiente, más una
+ *   etiqueta de 2 bits por celda con su nivel módulo 3. Como la grilla es
+ *   bipartita, los vecinos visitados están un nivel antes o uno después, y
+ *   el módulo 3 distingue cuál es cuál (codificación de Lee/Akers). La
+ *   memoria queda acotada sin importar la longitud del camino.
+ */
+public class MotorOndaBits {
+    public static final int SIN_CAMINO = -1;
+
+    private final Laberinto laberinto;
+    private final boolean dosNiveles;
+    private final int filas;
+    private final int columnas;
+    private final int palabras;
+    private final long mascaraUltima;
+
+    private long[] libres;
+    private long[] visitadas;
+    private long[] frontera;
+    private long[] siguiente;
+
+    // Filas con frontera (ascendentes) y rango de palabras no nulas de cada una
+    private ListaEnteros filasFrontera;
+    private ListaEnteros filasSiguiente;
+    private int[] minimaFrontera;
+    private int[] maximaFrontera;
+    private int[] minimaSiguiente;
+    private int[] maximaSiguiente;
+
+    // Modo completo: niveles dispersos (índice de palabra ascendente + bits)
+    private int[] nivelIndices;
+    private long[] nivelBits;
+    private int cantidadEntradas;
+    private ListaEnteros inicioNivel;
+
+    // Modo dos niveles: nivel módulo 3 de cada celda visitada
+    private long[] etiquetaBaja;
+    private long[] etiquetaAlta;
+
+    private int fin;
+    private int distancia;
+    private long celdasAlcanzadas;
+    private boolean detenido;
+
+    public MotorOndaBits(Laberinto laberinto, boolean dosNiveles) {
+        this.laberinto = laberinto;
+        this.dosNiveles = dosNiveles;
+        this.filas = laberinto.getFilas();
+        this.columnas = laberinto.getColumnas();
+        this.palabras = (columnas + 63) >>> 6;
+        int sobrantes = columnas & 63;
+        this.mascaraUltima = sobrantes == 0 ? -1L : (1L << sobrantes) - 1;
+    }
+
+    /**
+     * Avanza la onda desde inicio hasta alcanzar fin
+     * @return la distancia en pasos, o SIN_CAMINO
+     */
+    public int calcularDistancia(int inicio, int fin) {
+        return calcularDistancia(inicio, fin, ControlEjecucion.sinLimites());
+    }
+
+    /**
+     * Igual que calcularDistancia, pero consulta el control en cada nivel;
+     * si corta devuelve SIN_CAMINO y isDetenido() queda en true
+     */
+    public int calcularDistancia(int inicio, int fin, ControlEjecucion control) {
+        this.fin = fin;
+        prepararGrillas();
+
+        distancia = SIN_CAMINO;
+        detenido = false;
+        celdasAlcanzadas = 1;
+        if (!esLibre(inicio) || !esLibre(fin)) return distancia;
+
+        int palabraInicio = palabraDe(inicio);
+        marcar(visitadas, inicio);
+        marcar(frontera, inicio);
+        filasFrontera.agregar(filaDe(inicio));
+        minimaFrontera[filaDe(inicio)] = palabraInicio % palabras;
+        maximaFrontera[filaDe(inicio)] = palabraInicio % palabras;
+        guardarNivel(0);
+
+        int nivel = 0;
+        while (!contiene(visitadas, fin)) {
+            if (control.debeDetenerAhora(celdasAlcanzadas)) {
+                detenido = true;
+                return distancia;
+            }
+
+            // Solo las filas con frontera y sus vecinas pueden ganar celdas
+            int ultimaFila = -1;
+            for (int i = 0; i < filasFrontera.tamano(); i++) {
+                int fila = filasFrontera.get(i);
+                int hasta = Math.min(filas - 1, fila + 1);
+                for (int f = Math.max(ultimaFila + 1, fila - 1); f <= hasta; f++) {
+                    avanzarFila(f);
+                }
+                ultimaFila = Math.max(ultimaFila, hasta);
+            }
+
+            limpiarFrontera();
+            if (filasFrontera.estaVacia()) return distancia; // La onda se apagó sin llegar al fin
+
+            nivel++;
+            guardarNivel(nivel);
+        }
+
+        distancia = nivel;
+        return distancia;
+    }
+
+    /**
+     * Calcula la fila f de la siguiente frontera, recorriendo solo las
+     * palabras cercanas a la frontera de las filas f - 1, f y f + 1
+     */
+    private void avanzarFila(int f) {
+        int desde = minimaFrontera[f];
+        int hasta = maximaFrontera[f];
+        if (f > 0) {
+            desde = Math.min(desde, minimaFrontera[f - 1]);
+            hasta = Math.max(hasta, maximaFrontera[f - 1]);
+        }
+        if (f < filas - 1) {
+            desde = Math.min(desde, minimaFrontera[f + 1]);
+            hasta = Math.max(hasta, maximaFrontera[f + 1]);
+        }
+        if (desde > hasta) return;
+        desde = Math.max(0, desde - 1);
+        hasta = Math.min(palabras - 1, hasta + 1);
+
+        int base = f * palabras;
+        int nuevaMinima = Integer.MAX_VALUE;
+        int nuevaMaxima = -1;
+
+        for (int w = desde; w <= hasta; w++) {
+            int i = base + w;
+            long actual = frontera[i];
+            long vecinos = (actual << 1) | (actual >>> 1);
+            if (w > 0) vecinos |= frontera[i - 1] >>> 63;
+            if (w < palabras - 1) vecinos |= frontera[i + 1] << 63;
+            if (f > 0) vecinos |= frontera[i - palabras];
+            if (f < filas - 1) vecinos |= frontera[i + palabras];
+
+            long nuevas = vecinos & libres[i] & ~visitadas[i];
+            if (nuevas != 0) {
+                siguiente[i] = nuevas;
+                visitadas[i] |= nuevas;
+                celdasAlcanzadas += Long.bitCount(nuevas);
+                if (nuevaMaxima < 0) nuevaMinima = w;
+                nuevaMaxima = w;
+            }
+        }
+
+        if (nuevaMaxima >= 0) {
+            filasSiguiente.agregar(f);
+            minimaSiguiente[f] = nuevaMinima;
+            maximaSiguiente[f] = nuevaMaxima;
+        }
+    }
+
+    /**
+     * Borra la frontera vieja (solo sus rangos activos, así el arreglo queda
+     * en cero para usarse como siguiente) y pasa a la nueva
+     */
+    private void limpiarFrontera() {
+        for (int i = 0; i < filasFrontera.tamano(); i++) {
+            int f = filasFrontera.get(i);
+            Arrays.fill(frontera, f * palabras + minimaFrontera[f], f * palabras + maximaFrontera[f] + 1, 0L);
+            minimaFrontera[f] = Integer.MAX_VALUE;
+            maximaFrontera[f] = -1;
+        }
+        filasFrontera.limpiar();
+
+        long[] temporal = frontera;
+        frontera = siguiente;
+        siguiente = temporal;
+
+        int[] minimas = minimaFrontera;
+        minimaFrontera = minimaSiguiente;
+        minimaSiguiente = minimas;
+        int[] maximas = maximaFrontera;
+        maximaFrontera = maximaSiguiente;
+        maximaSiguiente = maximas;
+        ListaEnteros filasTemporal = filasFrontera;
+        filasFrontera = filasSiguiente;
+        filasSiguiente = filasTemporal;
+    }
+
+    /**
+     * Solo responde si hay camino, sin distancia: barre la grilla hacia abajo
+     * y hacia arriba hasta que no cambia nada. En cada fila las semillas (lo
+     * alcanzado más lo que llega de la fila vecina) se extienden a todo su
+     * tramo de celdas libres con la suma de MotorAlcanceMonotono, en ambos
+     * sentidos. En zonas abiertas basta con un par de barridos.
+     */
+    public boolean hayCamino(int inicio, int fin) {
+        this.fin = fin;
+        prepararGrillas();
+        distancia = SIN_CAMINO;
+        if (!esLibre(inicio) || !esLibre(fin)) return false;
+
+        // Cada fila queda siempre cerrada por tramos: rellenar la del inicio
+        marcar(visitadas, inicio);
+        rellenarFila(filaDe(inicio), -1);
+
+        boolean cambio = true;
+        while (cambio && !contiene(visitadas, fin)) {
+            cambio = false;
+            for (int f = 0; f < filas; f++) {
+                cambio |= rellenarFila(f, f - 1);
+            }
+            for (int f = filas - 1; f >= 0; f--) {
+                cambio |= rellenarFila(f, f + 1);
+            }
+        }
+
+        return contiene(visitadas, fin);
+    }
+
+    /**
+     * Agrega a la fila f lo que entra desde la fila vecina y lo extiende por
+     * sus tramos libres a derecha e izquierda
+     * @return true si la fila ganó celdas
+     */
+    private boolean rellenarFila(int f, int vecina) {
+        int base = f * palabras;
+        boolean cambio = false;
+
+        if (vecina >= 0 && vecina < filas) {
+            int otra = vecina * palabras;
+            for (int w = 0; w < palabras; w++) {
+                long nuevas = visitadas[otra + w] & libres[base + w] & ~visitadas[base + w];
+                if (nuevas != 0) {
+                    visitadas[base + w] |= nuevas;
+                    cambio = true;
+                }
+            }
+            if (!cambio) return false;
+        }
+
+        // Hacia la derecha: el acarreo de la suma corre hasta la primera pared
+        long acarreo = 0;
+        for (int w = 0; w < palabras; w++) {
+            long libre = libres[base + w];
+            long semillas = (visitadas[base + w] | acarreo) & libre;
+            long alcanzadas = (((libre + semillas) ^ libre) | semillas) & libre;
+            cambio |= alcanzadas != visitadas[base + w];
+            visitadas[base + w] = alcanzadas;
+            acarreo = alcanzadas >>> 63;
+        }
+
+        // Hacia la izquierda: lo mismo con los bits invertidos
+        acarreo = 0;
+        for (int w = palabras - 1; w >= 0; w--) {
+            long libre = Long.reverse(libres[base + w]);
+            long semillas = (Long.reverse(visitadas[base + w]) | acarreo) & libre;
+            long alcanzadas = (((libre + semillas) ^ libre) | semillas) & libre;
+            visitadas[base + w] = Long.reverse(alcanzadas);
+            acarreo = alcanzadas >>> 63;
+        }
+
+        return cambio;
+    }
+
+    /**
+     * Camino de inicio a fin (llamar después de calcularDistancia con éxito):
+     * desde el fin, en cada nivel k se pasa a un vecino del nivel k - 1
+     */
+    public ListaEnteros reconstruirCamino() {
+        ListaEnteros camino = new ListaEnteros(distancia + 1);
+        int actual = fin;
+        camino.agregar(actual);
+
+        for (int nivel = distancia - 1; nivel >= 0; nivel--) {
+            int mascara = laberinto.getMascaraVecinos(actual);
+            int anterior = -1;
+            while (mascara != 0 && anterior < 0) {
+                int direccion = Integer.numberOfTrailingZeros(mascara);
+                mascara &= mascara - 1;
+                int vecino = laberinto.getVecino(actual, direccion);
+                if (estaEnNivel(vecino, nivel)) anterior = vecino;
+            }
+            actual = anterior;
+            camino.agregar(actual);
+        }
+
+        camino.invertir();
+        return camino;
+    }
+
+    /**
+     * Celdas alcanzadas hasta detener la onda (popcount del bitset de visitadas)
+     */
+    public int contarVisitadas() {
+        int total = 0;
+        for (long palabra : visitadas) {
+            total += Long.bitCount(palabra);
+        }
+        return total;
+    }
+
+    /**
+     * Celdas visitadas en orden de nivel (modo completo) o por filas (dos niveles)
+     */
+    public ListaEnteros listarVisitas() {
+        ListaEnteros celdas = new ListaEnteros();
+        recorrerVisitas(celdas::agregar);
+        return celdas;
+    }
+
+    /**
+     * Entrega las celdas visitadas en el mismo orden que listarVisitas, sin
+     * guardarlas (por ejemplo para publicarlas en un FlujoVisitas)
+     */
+    public void recorrerVisitas(IntConsumer destino) {
+        if (dosNiveles) {
+            for (int i = 0; i < visitadas.length; i++) {
+                entregarCeldas(destino, i, visitadas[i]);
+            }
+        } else {
+            for (int e = 0; e < cantidadEntradas; e++) {
+                entregarCeldas(destino, nivelIndices[e], nivelBits[e]);
+            }
+        }
+    }
+
+    private void entregarCeldas(IntConsumer destino, int palabra, long bits) {
+        int base = (palabra / palabras) * columnas + ((palabra % palabras) << 6);
+        while (bits != 0) {
+            destino.accept(base + Long.numberOfTrailingZeros(bits));
+            bits &= bits - 1;
+        }
+    }
+
+    private void prepararGrillas() {
+        int total = filas * palabras;
+        if (libres == null) {
+            libres = new long[total];
+            visitadas = new long[total];
+            frontera = new long[total];
+            siguiente = new long[total];
+            minimaFrontera = new int[filas];
+            maximaFrontera = new int[filas];
+            minimaSiguiente = new int[filas];
+            maximaSiguiente = new int[filas];
+            filasFrontera = new ListaEnteros();
+            filasSiguiente = new ListaEnteros();
+        } else {
+            Arrays.fill(visitadas, 0L);
+            Arrays.fill(frontera, 0L);
+            Arrays.fill(siguiente, 0L);
+            filasFrontera.limpiar();
+            filasSiguiente.limpiar();
+        }
+        Arrays.fill(minimaFrontera, Integer.MAX_VALUE);
+        Arrays.fill(minimaSiguiente, Integer.MAX_VALUE);
+        Arrays.fill(maximaFrontera, -1);
+        Arrays.fill(maximaSiguiente, -1);
+
+        // Celdas libres, alineadas por fila
+        for (int f = 0; f < filas; f++) {
+            int base = f * columnas;
+            for (int w = 0; w < palabras; w++) {
+                long mascara = w == palabras - 1 ? mascaraUltima : -1L;
+                libres[f * palabras + w] = ~laberinto.getParedes64(base + (w << 6)) & mascara;
+            }
+        }
+
+        if (dosNiveles) {
+            if (etiquetaBaja == null) {
+                etiquetaBaja = new long[total];
+                etiquetaAlta = new long[total];
+            } else {
+                Arrays.fill(etiquetaBaja, 0L);
+                Arrays.fill(etiquetaAlta, 0L);
+            }
+        } else {
+            nivelIndices = new int[64];
+            nivelBits = new long[64];
+            cantidadEntradas = 0;
+            inicioNivel = new ListaEnteros();
+        }
+    }
+
+    /**
+     * Registra la frontera actual según el modo
+     */
+    private void guardarNivel(int nivel) {
+        int resto = nivel % 3;
+        if (!dosNiveles) inicioNivel.agregar(cantidadEntradas);
+
+        for (int k = 0; k < filasFrontera.tamano(); k++) {
+            int f = filasFrontera.get(k);
+            for (int i = f * palabras + minimaFrontera[f]; i <= f * palabras + maximaFrontera[f]; i++) {
+                long bits = frontera[i];
+                if (dosNiveles) {
+                    if ((resto & 1) != 0) etiquetaBaja[i] |= bits;
+                    if ((resto & 2) != 0) etiquetaAlta[i] |= bits;
+                } else if (bits != 0) {
+                    agregarEntrada(i, bits);
+                }
+            }
+        }
+    }
+
+    private void agregarEntrada(int palabra, long bits) {
+        if (cantidadEntradas == nivelIndices.length) {
+            nivelIndices = Arrays.copyOf(nivelIndices, cantidadEntradas * 2);
+            nivelBits = Arrays.copyOf(nivelBits, cantidadEntradas * 2);
+        }
+        nivelIndices[cantidadEntradas] = palabra;
+        nivelBits[cantidadEntradas] = bits;
+        cantidadEntradas++;
+    }
+
+    private boolean estaEnNivel(int celda, int nivel) {
+        int palabra = palabraDe(celda);
+        long bit = 1L << (laberinto.getColumna(celda) & 63);
+
+        if (dosNiveles) {
+            if ((visitadas[palabra] & bit) == 0) return false;
+            int resto = ((etiquetaBaja[palabra] & bit) != 0 ? 1 : 0)
+                      | ((etiquetaAlta[palabra] & bit) != 0 ? 2 : 0);
+            return resto == nivel % 3;
+        }
+
+        int desde = inicioNivel.get(nivel);
+        int hasta = nivel + 1 < inicioNivel.tamano() ? inicioNivel.get(nivel + 1) : cantidadEntradas;
+        int posicion = Arrays.binarySearch(nivelIndices, desde, hasta, palabra);
+        return posicion >= 0 && (nivelBits[posicion] & bit) != 0;
+    }
+
+    private int filaDe(int celda) {
+        return celda / columnas;
+    }
+
+    private int palabraDe(int celda) {
+        return filaDe(celda) * palabras + ((celda % columnas) >>> 6);
+    }
+
+    private boolean esLibre(int celda) {
+        return contiene(libres, celda);
+    }
+
+    private boolean contiene(long[] bits, int celda) {
+        return (bits[palabraDe(celda)] & (1L << (celda % columnas & 63))) != 0;
+    }
+
+    private void marcar(long[] bits, int celda) {
+        bits[palabraDe(celda)] |= 1L << (celda % columnas & 63);
+    }
+
+    public int getDistancia() { return distancia; }
+    public boolean isDetenido() { return detenido; }
+    public boolean isDosNiveles() { return dosNiveles; }
+}
@@ -0,0 +1,18 @@
+package controllers;
+
+import java.util.List;
+
+/**
+ * Servicio que aporta algoritmos al registro.
+ * Las implementaciones se descubren con ServiceLoader: se listan, una por
+ * línea, en META-INF/services/controllers.ProveedorAlgoritmos y necesitan
+ * un constructor público sin argumentos. Así un motor nuevo se agrega con su
+ * propio proveedor, sin tocar la interfaz ni los bancos de prueba.
+ */
+public interface ProveedorAlgoritmos {
+
+    /**
+     * @return los algoritmos de este proveedor, en el orden en que se muestran
+     */
+    List<DescripcionAlgoritmo> getAlgoritmos();
+}
@@ -6,27 +6,63 @@ import java.util.*;
 /**
  * Implementación del algoritmo Recursivo con Backtracking
  * Muestra todas las celdas visitadas
+ *
+ * Con cota exacta (modo por defecto) primero calcula con un BFS inverso la
+ * distancia de cada celda al fin y la usa como cota inferior admisible para
+ * ramificación y poda, y también para ordenar los vecinos. El primer camino
+ * que encuentra ya es el más corto y el resto del árbol se poda, así que el
+ * costo es casi lineal. Sin ella usa la memoización original, que solo poda
+ * después del primer camino y crece exponencialmente con el tamaño.
  */
 public class RecursivoBacktracking implements AlgoritmoLaberinto {
     private Laberinto laberinto;
-    private List<Celda> caminoActual;
-    private List<Celda> mejorCamino;
+    private ContextoBusqueda contexto;
     private int celdasVisitadas;
-    private List<Celda> ordenVisitas;
-    private Set<Celda> todasLasVisitadas; // Para mantener registro de TODAS las visitadas
+    private ListaEnteros ordenVisitas;
+    private boolean registrarVisitas;
+    private FlujoVisitas flujo;
+    private ListaEnteros mejorCamino;
     
-    // PROGRAMACIÓN DINÁMICA: Cache para memoización
-    private Map<String, Integer> memo;
+    // Pila explícita: la pila de celdas es el camino actual
+    private ListaEnteros pilaCeldas;
+    private ListaEnteros pilaOrden;
+    private ListaEnteros pilaProbados;
+    private ListaEnteros pilaTamanoAntes;
+    private ListaEnteros pilaMejorDistancia;
+    
+    // PROGRAMACIÓN DINÁMICA: mejor distancia conocida de cada celda al fin,
+    // indexada por celda (el fin es fijo durante una ejecución)
+    private static final int SIN_DATO = -1;
+    private int[] memo;
+    private int tamanoCache;
     private int cachesUtilizados;
     private String nombre;
     
+    // Distancia exacta de cada celda al fin (solo con cota exacta)
+    private boolean cotaExacta;
+    private int[] distanciasAlFin;
+    
+    private ControlEjecucion control;
+    private boolean detenido;
+    
     public RecursivoBacktracking(Laberinto laberinto) {
+        this(laberinto, true);
+    }
+    
+    /**
+     * @param cotaExacta true para podar con el campo de distancias del BFS
+     *                   inverso, false para la memoización original
+     */
+    public RecursivoBacktracking(Laberinto laberinto, boolean cotaExacta) {
         this.laberinto = laberinto;
-        this.memo = new HashMap<>();
+        this.cotaExacta = cotaExacta;
         this.cachesUtilizados = 0;
         this.nombre = "Recursivo 4 direcciones con backtracking";
-        this.ordenVisitas = new ArrayList<>();
-        this.todasLasVisitadas = new HashSet<>();
+        this.pilaCeldas = new ListaEnteros();
+        this.pilaOrden = new ListaEnteros();
+        this.pilaProbados = new ListaEnteros();
+        this.pilaTamanoAntes = new ListaEnteros();
+        this.pilaMejorDistancia = new ListaEnteros();
     }
     
     @Override
@@ -34,52 +70,67 @@ public class RecursivoBacktracking implements AlgoritmoLaberinto {
         return nombre;
     }
     
-    private String generarClave(int fila, int col, Celda destino) {
-        return fila + "," + col + "->" + destino.getFila() + "," + destino.getColumna();
+    /**
+     * Guarda la distancia en la tabla, contando las celdas que entran por primera vez
+     */
+    private void guardarEnCache(int celda, int distancia) {
+        if (memo[celda] == SIN_DATO) {
+            tamanoCache++;
+        }
+        memo[celda] = distancia;
     }
     
     @Override
-    public ResultadoEjecucion resolver() {
+    public ResultadoEjecucion resolver(ControlEjecucion control) {
         ResultadoEjecucion resultado = new ResultadoEjecucion(nombre);
         long tiempoInicio = System.nanoTime();
         
         // Reiniciar variables
-        laberinto.reiniciarVisitadas();
-        caminoActual = new ArrayList<>();
+        contexto = laberinto.tomarContexto();
         mejorCamino = null;
         celdasVisitadas = 0;
-        ordenVisitas.clear();
-        todasLasVisitadas.clear();
-        memo.clear();
+        ordenVisitas = new ListaEnteros();
+        tamanoCache = 0;
+        if (!cotaExacta) {
+            if (memo == null || memo.length != laberinto.getTotalCeldas()) {
+                memo = new int[laberinto.getTotalCeldas()];
+            }
+            Arrays.fill(memo, SIN_DATO);
+        }
         cachesUtilizados = 0;
+        this.control = control;
+        flujo = control.getFlujo();
+        registrarVisitas = control.isRegistrarVisitas() && flujo == null;
+        detenido = false;
+        
+        int inicio = laberinto.getIndiceInicio();
+        int fin = laberinto.getIndiceFin();
         
-        Celda inicio = laberinto.getInicio();
-        Celda fin = laberinto.getFin();
+        // Cota exacta: un BFS inverso desde el fin; las celdas alcanzadas forman la tabla
+        distanciasAlFin = null;
+        if (cotaExacta) {
+            MotorBFS motor = new MotorBFS(laberinto);
+            distanciasAlFin = motor.calcularDistancias(fin);
+            tamanoCache = motor.getCeldasVisitadas();
+        }
         
         // Iniciar búsqueda recursiva con backtracking y memoización
         buscarConBacktrackingDP(inicio, fin);
         
-        // Establecer resultados
+        // Establecer resultados (si se cortó, el mejor camino hasta ese momento)
         if (mejorCamino != null) {
-            resultado.setCamino(new ArrayList<>(mejorCamino));
+            resultado.setCamino(laberinto, mejorCamino);
             resultado.setEncontroSolucion(true);
-            
-            // Marcar TODAS las celdas visitadas durante la búsqueda
-            for (Celda celda : todasLasVisitadas) {
-                celda.setVisitada(true);
-            }
-            
-            // Marcar el camino final
-            for (Celda celda : mejorCamino) {
-                celda.setEnCamino(true);
-            }
         }
         
         resultado.setCeldasVisitadas(celdasVisitadas);
-        resultado.setOrdenVisitas(new ArrayList<>(ordenVisitas));
+        resultado.setOrdenVisitas(new VistaCeldas(laberinto, ordenVisitas));
         resultado.setUsoProgramacionDinamica(true);
         resultado.setCachesUtilizados(cachesUtilizados);
-        resultado.setTamanoCache(memo.size());
+        resultado.setTamanoCache(tamanoCache);
+        if (detenido) resultado.setEstado(control.getMotivo());
+        
+        laberinto.liberarContexto(contexto);
         
         long tiempoNs = System.nanoTime() - tiempoInicio;
         resultado.setTiempoEjecucionNs(tiempoNs);
@@ -87,77 +138,163 @@ public class RecursivoBacktracking implements AlgoritmoLaberinto {
         return resultado;
     }
     
-    private void buscarConBacktrackingDP(Celda actual, Celda fin) {
+    /**
+     * Backtracking con pila explícita. Cada marco guarda la celda, sus
+     * direcciones ordenadas, cuántas ya probó, la longitud del mejor camino
+     * antes del hijo en curso y la mejor distancia hallada desde la celda;
+     * es el mismo estado que tenía cada llamada recursiva.
+     */
+    private void buscarConBacktrackingDP(int inicio, int fin) {
+        entrar(inicio, fin);
+        
+        while (!pilaCeldas.estaVacia()) {
+            if (control.debeDetener(celdasVisitadas)) {
+                detenido = true;
+                limpiarPilas();
+                return;
+            }
+            
+            int tope = pilaCeldas.tamano() - 1;
+            int actual = pilaCeldas.get(tope);
+            int probados = pilaProbados.get(tope);
+            
+            // Volvemos de un hijo: actualizar la mejor distancia desde aquí
+            if (probados > 0 && mejorCamino != null && mejorCamino.tamano() < pilaTamanoAntes.get(tope)) {
+                pilaMejorDistancia.set(tope, mejorCamino.tamano() - pilaCeldas.tamano());
+            }
+            
+            int orden = pilaOrden.get(tope);
+            if (probados < (orden >>> 8)) {
+                pilaProbados.set(tope, probados + 1);
+                pilaTamanoAntes.set(tope, mejorCamino != null ? mejorCamino.tamano() : Integer.MAX_VALUE);
+                entrar(laberinto.getVecino(actual, (orden >>> (2 * probados)) & 3), fin);
+                continue;
+            }
+            
+            // PROGRAMACIÓN DINÁMICA: Guardar la mejor distancia encontrada
+            int mejorDistanciaDesdeAqui = pilaMejorDistancia.get(tope);
+            if (mejorDistanciaDesdeAqui < Integer.MAX_VALUE && !cotaExacta) {
+                guardarEnCache(actual, mejorDistanciaDesdeAqui);
+            }
+            
+            // Backtrack: quitar del camino pero NO del conjunto de visitadas
+            desapilar();
+            contexto.setVisitada(actual, false); // Solo para permitir otras rutas
+        }
+    }
+    
+    /**
+     * Equivale al comienzo de una llamada recursiva. Si la celda se va a
+     * explorar apila su marco; si no (fin, poda o camino demasiado largo)
+     * hace el backtrack en el momento.
+     */
+    private void entrar(int actual, int fin) {
         // Marcar como visitada y agregar al camino
-        actual.setVisitada(true);
+        contexto.setVisitada(actual, true);
         celdasVisitadas++;
-        caminoActual.add(actual);
-        ordenVisitas.add(actual);
-        todasLasVisitadas.add(actual); // Guardar en el conjunto de todas las visitadas
+        if (registrarVisitas) ordenVisitas.agregar(actual);
+        else if (flujo != null) flujo.publicarVisita(actual);
+        int longitud = pilaCeldas.tamano() + 1;
         
         // Verificar si llegamos al fin
-        if (actual.equals(fin)) {
+        if (actual == fin) {
             // Si es el primer camino o es más corto que el mejor actual
-            if (mejorCamino == null || caminoActual.size() < mejorCamino.size()) {
-                mejorCamino = new ArrayList<>(caminoActual);
+            if (mejorCamino == null || longitud < mejorCamino.tamano()) {
+                mejorCamino = pilaCeldas.copiar();
+                mejorCamino.agregar(actual);
                 
                 // PROGRAMACIÓN DINÁMICA: Guardar en cache la distancia mínima
-                String clave = generarClave(actual.getFila(), actual.getColumna(), fin);
-                memo.put(clave, 0);
+                if (!cotaExacta) guardarEnCache(actual, 0);
             }
-        } else {
-            // PROGRAMACIÓN DINÁMICA: Verificar si ya conocemos la distancia mínima desde aquí
-            String clave = generarClave(actual.getFila(), actual.getColumna(), fin);
-            if (memo.containsKey(clave)) {
-                int distanciaConocida = memo.get(clave);
+            contexto.setVisitada(actual, false);
+            return;
+        }
+        
+        if (cotaExacta) {
+            // Cota inferior exacta: ni siquiera el camino más corto desde aquí mejora al actual
+            int restante = distanciasAlFin[actual];
+            if (restante < 0 || (mejorCamino != null && longitud + restante >= mejorCamino.tamano())) {
                 cachesUtilizados++;
-                
-                // Si el camino actual + distancia conocida es peor que el mejor, podar
-                if (mejorCamino != null && 
-                    caminoActual.size() + distanciaConocida >= mejorCamino.size()) {
-                    // Backtrack inmediato
-                    caminoActual.remove(caminoActual.size() - 1);
-                    actual.setVisitada(false); // Solo para el backtracking local
-                    return;
-                }
+                contexto.setVisitada(actual, false);
+                return;
             }
+        } else if (memo[actual] != SIN_DATO) {
+            // PROGRAMACIÓN DINÁMICA: ya conocemos la distancia mínima desde aquí
+            int distanciaConocida = memo[actual];
+            cachesUtilizados++;
             
-            // Si aún no hemos encontrado ningún camino o
-            // el camino actual es más corto que el mejor encontrado
-            if (mejorCamino == null || caminoActual.size() < mejorCamino.size()) {
-                // Explorar en 4 direcciones
-                List<Celda> vecinos = laberinto.getVecinosNoVisitados(actual);
-                
-                // Ordenar vecinos por distancia Manhattan al fin (heurística)
-                vecinos.sort((a, b) -> {
-                    int distA = Math.abs(a.getFila() - fin.getFila()) + 
-                               Math.abs(a.getColumna() - fin.getColumna());
-                    int distB = Math.abs(b.getFila() - fin.getFila()) + 
-                               Math.abs(b.getColumna() - fin.getColumna());
-                    return Integer.compare(distA, distB);
-                });
-                
-                int mejorDistanciaDesdeAqui = Integer.MAX_VALUE;
-                
-                for (Celda vecino : vecinos) {
-                    int tamanoAntes = mejorCamino != null ? mejorCamino.size() : Integer.MAX_VALUE;
-                    buscarConBacktrackingDP(vecino, fin);
-                    
-                    // Actualizar mejor distancia encontrada desde este punto
-                    if (mejorCamino != null && mejorCamino.size() < tamanoAntes) {
-                        mejorDistanciaDesdeAqui = mejorCamino.size() - caminoActual.size();
-                    }
-                }
-                
-                // PROGRAMACIÓN DINÁMICA: Guardar la mejor distancia encontrada
-                if (mejorDistanciaDesdeAqui < Integer.MAX_VALUE) {
-                    memo.put(clave, mejorDistanciaDesdeAqui);
+            // Si el camino actual + distancia conocida es peor que el mejor, podar
+            if (mejorCamino != null && longitud + distanciaConocida >= mejorCamino.tamano()) {
+                // Backtrack inmediato
+                contexto.setVisitada(actual, false); // Solo para el backtracking local
+                return;
+            }
+        }
+        
+        // Si aún no hemos encontrado ningún camino o
+        // el camino actual es más corto que el mejor encontrado
+        if (mejorCamino == null || longitud < mejorCamino.tamano()) {
+            // Explorar en 4 direcciones, ordenadas por distancia al fin (Manhattan o exacta)
+            pilaCeldas.agregar(actual);
+            pilaOrden.agregar(ordenarPorDistancia(actual, contexto.getMascaraNoVisitados(actual), fin));
+            pilaProbados.agregar(0);
+            pilaTamanoAntes.agregar(Integer.MAX_VALUE);
+            pilaMejorDistancia.agregar(Integer.MAX_VALUE);
+            return;
+        }
+        
+        contexto.setVisitada(actual, false);
+    }
+    
+    private void limpiarPilas() {
+        pilaCeldas.limpiar();
+        pilaOrden.limpiar();
+        pilaProbados.limpiar();
+        pilaTamanoAntes.limpiar();
+        pilaMejorDistancia.limpiar();
+    }
+    
+    private void desapilar() {
+        pilaCeldas.quitarUltimo();
+        pilaOrden.quitarUltimo();
+        pilaProbados.quitarUltimo();
+        pilaTamanoAntes.quitarUltimo();
+        pilaMejorDistancia.quitarUltimo();
+    }
+    
+    /**
+     * Direcciones ordenadas por distancia al fin, de a 2 bits y la cantidad desde el bit 8
+     */
+    private int ordenarPorDistancia(int actual, int mascara, int fin) {
+        int filaFin = laberinto.getFila(fin);
+        int colFin = laberinto.getColumna(fin);
+        int orden = 0;
+        int cantidad = 0;
+        
+        while (mascara != 0) {
+            int mejorDireccion = 0;
+            int mejorDistancia = Integer.MAX_VALUE;
+            
+            int pendientes = mascara;
+            while (pendientes != 0) {
+                int direccion = Integer.numberOfTrailingZeros(pendientes);
+                pendientes &= pendientes - 1;
+                int vecino = laberinto.getVecino(actual, direccion);
+                int distancia = distanciasAlFin != null
+                    ? distanciasAlFin[vecino]
+                    : Math.abs(laberinto.getFila(vecino) - filaFin) + 
+                      Math.abs(laberinto.getColumna(vecino) - colFin);
+                if (distancia < mejorDistancia) {
+                    mejorDistancia = distancia;
+                    mejorDireccion = direccion;
                 }
             }
+            
+            orden |= mejorDireccion << (2 * cantidad);
+            cantidad++;
+            mascara &= ~(1 << mejorDireccion);
         }
         
-        // Backtrack: quitar del camino pero NO del conjunto de visitadas
-        caminoActual.remove(caminoActual.size() - 1);
-        actual.setVisitada(false); // Solo para permitir otras rutas
+        return orden | (cantidad << 8);
     }
 }
\ No newline at end of file
@@ -1,7 +1,6 @@
 package controllers;
 
 import model.*;
-import java.util.*;
 
 /**
  * Recursivo 4 direcciones
@@ -10,19 +9,24 @@ import java.util.*;
  */
 public class RecursivoCuatroDirecciones implements AlgoritmoLaberinto {
     private Laberinto laberinto;
-    private List<Celda> caminoActual;
-    private List<Celda> caminoFinal;
+    private ContextoBusqueda contexto;
+    private ListaEnteros pilaCeldas;
+    private ListaEnteros pilaPendientes;
     private int celdasVisitadas;
     private boolean encontrado;
+    private long pasos; // Entradas a celdas: crece aunque ya no aparezcan celdas nuevas
+    private ControlEjecucion control;
+    private boolean detenido;
     private String nombre;
-    private List<Celda> ordenVisitas;
-    private Set<Celda> todasLasVisitadas;
+    private ListaEnteros ordenVisitas;
+    private boolean registrarVisitas;
+    private FlujoVisitas flujo;
     
     public RecursivoCuatroDirecciones(Laberinto laberinto) {
         this.laberinto = laberinto;
         this.nombre = "Recursivo 4 direcciones";
-        this.ordenVisitas = new ArrayList<>();
-        this.todasLasVisitadas = new HashSet<>();
+        this.pilaCeldas = new ListaEnteros();
+        this.pilaPendientes = new ListaEnteros();
     }
     
     @Override
@@ -31,43 +35,40 @@ public class RecursivoCuatroDirecciones implements AlgoritmoLaberinto {
     }
     
     @Override
-    public ResultadoEjecucion resolver() {
+    public ResultadoEjecucion resolver(ControlEjecucion control) {
         ResultadoEjecucion resultado = new ResultadoEjecucion(nombre);
         long tiempoInicio = System.nanoTime();
         
         // Reiniciar variables
-        laberinto.reiniciarVisitadas();
-        caminoActual = new ArrayList<>();
-        caminoFinal = null;
+        contexto = laberinto.tomarContexto();
+        pilaCeldas.limpiar();
+        pilaPendientes.limpiar();
         celdasVisitadas = 0;
         encontrado = false;
-        ordenVisitas.clear();
-        todasLasVisitadas.clear();
+        pasos = 0;
+        this.control = control;
+        flujo = control.getFlujo();
+        registrarVisitas = control.isRegistrarVisitas() && flujo == null;
+        detenido = false;
+        ordenVisitas = new ListaEnteros();
         
-        Celda inicio = laberinto.getInicio();
-        Celda fin = laberinto.getFin();
+        int inicio = laberinto.getIndiceInicio();
+        int fin = laberinto.getIndiceFin();
         
-        // Buscar recursivamente
+        // Buscar con pila explícita (mismo orden que la versión recursiva)
         buscarRecursivo(inicio, fin);
         
-        // Marcar todas las celdas visitadas
-        for (Celda celda : todasLasVisitadas) {
-            celda.setVisitada(true);
-        }
-        
         // Establecer resultados
-        if (caminoFinal != null) {
-            resultado.setCamino(new ArrayList<>(caminoFinal));
+        if (encontrado) {
+            resultado.setCamino(laberinto, pilaCeldas.copiar());
             resultado.setEncontroSolucion(true);
-            
-            // Marcar el camino
-            for (Celda celda : caminoFinal) {
-                celda.setEnCamino(true);
-            }
         }
         
         resultado.setCeldasVisitadas(celdasVisitadas);
-        resultado.setOrdenVisitas(new ArrayList<>(ordenVisitas));
+        resultado.setOrdenVisitas(new VistaCeldas(laberinto, ordenVisitas));
+        if (detenido) resultado.setEstado(control.getMotivo());
+        
+        laberinto.liberarContexto(contexto);
         
         long tiempoNs = System.nanoTime() - tiempoInicio;
         resultado.setTiempoEjecucionNs(tiempoNs);
@@ -75,55 +76,65 @@ public class RecursivoCuatroDirecciones implements AlgoritmoLaberinto {
         return resultado;
     }
     
-    private boolean buscarRecursivo(Celda actual, Celda fin) {
-        // Si ya encontramos el camino, no seguir buscando
-        if (encontrado) {
-            return true;
-        }
+    /**
+     * Recorrido con backtracking sobre una pila de índices. La pila de celdas
+     * es el camino actual (marcado "en camino" en el contexto) y en paralelo
+     * se guardan las direcciones que a cada celda le faltan probar. Las
+     * celdas "visitadas" del contexto son las registradas alguna vez.
+     */
+    private void buscarRecursivo(int inicio, int fin) {
+        entrar(inicio, fin);
         
-        // Marcar como visitada temporalmente
-        actual.setVisitada(true);
-        caminoActual.add(actual);
+        while (!encontrado && !pilaCeldas.estaVacia()) {
+            if (control.debeDetener(pasos)) {
+                detenido = true;
+                return;
+            }
+            
+            int tope = pilaPendientes.tamano() - 1;
+            int pendientes = pilaPendientes.get(tope);
+            int actual = pilaCeldas.getUltimo();
+            
+            // Backtrack
+            if (pendientes == 0) {
+                pilaCeldas.quitarUltimo();
+                pilaPendientes.quitarUltimo();
+                contexto.setEnCamino(actual, false);
+                continue;
+            }
+            
+            int direccion = Integer.numberOfTrailingZeros(pendientes);
+            pilaPendientes.set(tope, pendientes & (pendientes - 1));
+            int vecino = laberinto.getVecino(actual, direccion);
+            
+            if (!contexto.isEnCamino(vecino)) {
+                entrar(vecino, fin);
+            }
+        }
+    }
+    
+    private void entrar(int actual, int fin) {
+        // Marcar como parte del camino actual
+        pasos++;
+        contexto.setEnCamino(actual, true);
+        pilaCeldas.agregar(actual);
         
         // Registrar en la lista de visitadas si es primera vez
-        if (!todasLasVisitadas.contains(actual)) {
+        if (!contexto.isVisitada(actual)) {
+            contexto.marcarVisitada(actual);
             celdasVisitadas++;
-            ordenVisitas.add(actual);
-            todasLasVisitadas.add(actual);
+            if (registrarVisitas) ordenVisitas.agregar(actual);
+            else if (flujo != null) flujo.publicarVisita(actual);
         }
         
         // Verificar si llegamos al fin
-        if (actual.equals(fin)) {
+        if (actual == fin) {
             encontrado = true;
-            caminoFinal = new ArrayList<>(caminoActual);
-            return true;
-        }
-        
-        // Explorar en 4 direcciones
-        int fila = actual.getFila();
-        int col = actual.getColumna();
-        
-        // Direcciones: arriba, derecha, abajo, izquierda
-        int[] dirFilas = {-1, 0, 1, 0};
-        int[] dirCols = {0, 1, 0, -1};
-        
-        for (int i = 0; i < 4; i++) {
-            int nuevaFila = fila + dirFilas[i];
-            int nuevaCol = col + dirCols[i];
-            
-            if (laberinto.esCaminoLibre(nuevaFila, nuevaCol)) {
-                Celda vecino = laberinto.getCelda(nuevaFila, nuevaCol);
-                if (!vecino.isVisitada()) {
-                    if (buscarRecursivo(vecino, fin)) {
-                        return true;
-                    }
-                }
-            }
+            pilaPendientes.agregar(0);
+            return;
         }
         
-        // Backtrack
-        caminoActual.remove(caminoActual.size() - 1);
-        actual.setVisitada(false);
-        return false;
+        // Explorar en 4 direcciones: arriba, derecha, abajo, izquierda
+        pilaPendientes.agregar(laberinto.getMascaraVecinos(actual));
     }
-}
\ No newline at end of file
+}
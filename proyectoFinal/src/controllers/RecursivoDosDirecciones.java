@@ -1,23 +1,57 @@
 package controllers;
 
 import model.*;
-import java.util.*;
 
 /**
  * Recursivo 2 direcciones
  * "Solo derecha y abajo"
+ *
+ * En lugar de enumerar todos los caminos derecha/abajo (exponencial en una
+ * grilla abierta) resuelve la pregunta con programación dinámica en
+ * O(filas * columnas): una tabla, calculada de abajo hacia arriba dentro del
+ * rectángulo inicio-fin, con los pasos que faltan hasta el fin desde cada
+ * celda (-1 si no llega). Todos los caminos monótonos tienen la misma
+ * longitud, así que el camino se arma desde el inicio prefiriendo la derecha:
+ * es el mismo que encontraba primero la versión recursiva.
+ *
+ * El orden de visitas es el recorrido en profundidad (derecha antes que
+ * abajo) de las celdas alcanzables, igual que antes, pero con marcas de
+ * visitada en vez de volver a explorar cada celda una vez por camino.
+ *
+ * El modo por bits (MotorAlcanceMonotono) procesa 64 celdas por operación;
+ * visita las mismas celdas, pero en orden de fila.
+ *
+ * Sin traza (ControlEjecucion.setRegistrarVisitas) los dos modos igual
+ * cuentan las celdas visitadas; solo dejan de guardar su orden.
  */
 public class RecursivoDosDirecciones implements AlgoritmoLaberinto {
+    private static final int NO_LLEGA = -1;
+    
     private Laberinto laberinto;
-    private List<Celda> mejorCamino;
+    private ContextoBusqueda contexto;
     private int celdasVisitadas;
     private String nombre;
-    private List<Celda> ordenVisitas;
+    private ListaEnteros ordenVisitas;
+    private ListaEnteros pila;
+    private boolean porBits;
+    private boolean guardarOrden; // Sin traza el recorrido cuenta las celdas pero no las guarda
+    private FlujoVisitas flujo;
+    private ControlEjecucion control;
+    private boolean detenido;
     
     public RecursivoDosDirecciones(Laberinto laberinto) {
+        this(laberinto, false);
+    }
+    
+    /**
+     * @param porBits true para usar el alcance por palabras de 64 bits en
+     *                lugar de la tabla de programación dinámica
+     */
+    public RecursivoDosDirecciones(Laberinto laberinto, boolean porBits) {
         this.laberinto = laberinto;
+        this.porBits = porBits;
         this.nombre = "Recursivo 2 direcciones";
-        this.ordenVisitas = new ArrayList<>();
+        this.pila = new ListaEnteros();
     }
     
     @Override
@@ -26,36 +60,49 @@ public class RecursivoDosDirecciones implements AlgoritmoLaberinto {
     }
     
     @Override
-    public ResultadoEjecucion resolver() {
+    public ResultadoEjecucion resolver(ControlEjecucion control) {
         ResultadoEjecucion resultado = new ResultadoEjecucion(nombre);
         long tiempoInicio = System.nanoTime();
         
         // Reiniciar variables
-        laberinto.reiniciarVisitadas();
-        mejorCamino = null;
+        contexto = laberinto.tomarContexto();
         celdasVisitadas = 0;
-        ordenVisitas.clear();
+        ordenVisitas = new ListaEnteros();
+        this.control = control;
+        detenido = false;
+        flujo = control.getFlujo();
+        guardarOrden = control.isRegistrarVisitas() && flujo == null;
         
-        Celda inicio = laberinto.getInicio();
-        Celda fin = laberinto.getFin();
+        int inicio = laberinto.getIndiceInicio();
+        int fin = laberinto.getIndiceFin();
         
-        // Buscar camino solo yendo derecha o abajo
-        List<Celda> caminoActual = new ArrayList<>();
-        buscarCamino(inicio, fin, caminoActual);
+        ListaEnteros camino;
+        if (porBits) {
+            MotorAlcanceMonotono motor = new MotorAlcanceMonotono(laberinto);
+            camino = motor.calcular(inicio, fin, control) ? motor.reconstruirCamino() : null;
+            detenido = motor.isDetenido();
+            celdasVisitadas = motor.contarAlcanzables();
+            if (guardarOrden) ordenVisitas = motor.listarAlcanzables();
+            else if (flujo != null) motor.recorrerAlcanzables(flujo::publicarVisita);
+        } else {
+            // Celdas alcanzables yendo solo derecha o abajo, en orden de visita
+            registrarVisitas(inicio, fin);
+            
+            // Camino solo yendo derecha o abajo
+            camino = detenido ? null : buscarCamino(inicio, fin);
+        }
         
         // Establecer resultados
-        if (mejorCamino != null) {
-            resultado.setCamino(new ArrayList<>(mejorCamino));
+        if (camino != null) {
+            resultado.setCamino(laberinto, camino);
             resultado.setEncontroSolucion(true);
-            
-            // Marcar el camino amarillo
-            for (Celda celda : mejorCamino) {
-                celda.setEnCamino(true);
-            }
         }
         
         resultado.setCeldasVisitadas(celdasVisitadas);
-        resultado.setOrdenVisitas(new ArrayList<>(ordenVisitas));
+        resultado.setOrdenVisitas(new VistaCeldas(laberinto, ordenVisitas));
+        if (detenido) resultado.setEstado(control.getMotivo());
+        
+        laberinto.liberarContexto(contexto);
         
         long tiempoNs = System.nanoTime() - tiempoInicio;
         resultado.setTiempoEjecucionNs(tiempoNs);
@@ -63,43 +110,97 @@ public class RecursivoDosDirecciones implements AlgoritmoLaberinto {
         return resultado;
     }
     
-    private void buscarCamino(Celda actual, Celda fin, List<Celda> caminoActual) {
-        // Evitar ciclos
-        if (caminoActual.contains(actual)) return;
+    /**
+     * Recorrido en profundidad derecha-abajo con pila explícita; cada celda se
+     * registra y se expande una sola vez. El fin se registra pero no se
+     * expande, como en la versión recursiva que volvía al llegar
+     */
+    private void registrarVisitas(int inicio, int fin) {
+        pila.limpiar();
+        pila.agregar(inicio);
         
-        // Marcar visitada (gris)
-        if (!actual.isVisitada()) {
-            actual.setVisitada(true);
+        while (!pila.estaVacia()) {
+            if (control.debeDetener(celdasVisitadas)) {
+                detenido = true;
+                return;
+            }
+            
+            int actual = pila.quitarUltimo();
+            if (contexto.isVisitada(actual)) continue;
+            
+            // Marcar visitada (gris)
+            contexto.marcarVisitada(actual);
             celdasVisitadas++;
-            ordenVisitas.add(actual);
+            if (guardarOrden) ordenVisitas.agregar(actual);
+            else if (flujo != null) flujo.publicarVisita(actual);
+            
+            if (actual == fin) continue;
+            
+            // Se apila primero abajo para que derecha salga antes
+            int vecinos = laberinto.getMascaraVecinos(actual);
+            if ((vecinos & (1 << Laberinto.ABAJO)) != 0) {
+                pila.agregar(laberinto.getVecino(actual, Laberinto.ABAJO));
+            }
+            if ((vecinos & (1 << Laberinto.DERECHA)) != 0) {
+                pila.agregar(laberinto.getVecino(actual, Laberinto.DERECHA));
+            }
         }
+    }
+    
+    /**
+     * PROGRAMACIÓN DINÁMICA: pasos[f][c] = pasos hasta el fin desde la celda
+     * (f, c) del rectángulo, o NO_LLEGA. Se llena desde el fin hacia el
+     * inicio, así cada celda solo consulta su derecha y su abajo ya resueltas.
+     * @return el camino, o null si no hay camino derecha/abajo
+     */
+    private ListaEnteros buscarCamino(int inicio, int fin) {
+        int filaInicio = laberinto.getFila(inicio);
+        int colInicio = laberinto.getColumna(inicio);
+        int alto = laberinto.getFila(fin) - filaInicio + 1;
+        int ancho = laberinto.getColumna(fin) - colInicio + 1;
         
-        caminoActual.add(actual);
+        // El fin queda arriba o a la izquierda: no hay camino monótono
+        if (alto <= 0 || ancho <= 0) return null;
         
-        // Si llegamos al fin
-        if (actual.equals(fin)) {
-            if (mejorCamino == null || caminoActual.size() < mejorCamino.size()) {
-                mejorCamino = new ArrayList<>(caminoActual);
+        int[] pasos = new int[alto * ancho];
+        for (int f = alto - 1; f >= 0; f--) {
+            // Una consulta por fila, con las celdas ya resueltas como nodos
+            if (control.debeDetener((long) (alto - 1 - f) * ancho)) {
+                detenido = true;
+                return null;
+            }
+            
+            for (int c = ancho - 1; c >= 0; c--) {
+                int local = f * ancho + c;
+                if (laberinto.esPared(laberinto.indice(filaInicio + f, colInicio + c))) {
+                    pasos[local] = NO_LLEGA;
+                } else if (f == alto - 1 && c == ancho - 1) {
+                    pasos[local] = 0;
+                } else {
+                    int derecha = c + 1 < ancho ? pasos[local + 1] : NO_LLEGA;
+                    int abajo = f + 1 < alto ? pasos[local + ancho] : NO_LLEGA;
+                    int mejor = derecha != NO_LLEGA ? derecha : abajo;
+                    pasos[local] = mejor == NO_LLEGA ? NO_LLEGA : mejor + 1;
+                }
             }
-            caminoActual.remove(caminoActual.size() - 1);
-            return;
         }
         
-        int fila = actual.getFila();
-        int col = actual.getColumna();
+        if (pasos[0] == NO_LLEGA) return null;
         
-        // Solo derecha
-        if (laberinto.esCaminoLibre(fila, col + 1)) {
-            Celda derecha = laberinto.getCelda(fila, col + 1);
-            buscarCamino(derecha, fin, caminoActual);
-        }
-        
-        // Solo abajo
-        if (laberinto.esCaminoLibre(fila + 1, col)) {
-            Celda abajo = laberinto.getCelda(fila + 1, col);
-            buscarCamino(abajo, fin, caminoActual);
+        // Reconstrucción: avanzar a la derecha siempre que desde ahí se llegue
+        ListaEnteros camino = new ListaEnteros(pasos[0] + 1);
+        int f = 0;
+        int c = 0;
+        camino.agregar(inicio);
+        while (f != alto - 1 || c != ancho - 1) {
+            if (c + 1 < ancho && pasos[f * ancho + c + 1] != NO_LLEGA) {
+                c++;
+            } else {
+                f++;
+            }
+            camino.agregar(laberinto.indice(filaInicio + f, colInicio + c));
         }
         
-        caminoActual.remove(caminoActual.size() - 1);
+        return camino;
     }
-}
\ No newline at end of file
+}
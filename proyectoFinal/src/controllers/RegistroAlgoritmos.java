@@ -0,0 +1,88 @@
+package controllers;
+
+import model.Laberinto;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * Registro de algoritmos: reúne las descripciones de todos los
+ * ProveedorAlgoritmos encontrados con ServiceLoader. La interfaz, los bancos
+ * de prueba y las comparaciones eligen los algoritmos de aquí en lugar de
+ * comparar cadenas.
+ *
+ * Los algoritmos incluidos van siempre primero, aunque el archivo de
+ * servicios no se haya copiado junto a las clases compiladas. Si dos
+ * proveedores usan el mismo nombre queda el primero.
+ */
+public class RegistroAlgoritmos {
+    private static RegistroAlgoritmos instancia;
+
+    private final Map<String, DescripcionAlgoritmo> algoritmos = new LinkedHashMap<>();
+
+    private RegistroAlgoritmos() {
+        agregar(new AlgoritmosIncluidos());
+        for (ProveedorAlgoritmos proveedor : ServiceLoader.load(ProveedorAlgoritmos.class)) {
+            if (!(proveedor instanceof AlgoritmosIncluidos)) {
+                agregar(proveedor);
+            }
+        }
+    }
+
+    public static synchronized RegistroAlgoritmos getInstancia() {
+        if (instancia == null) {
+            instancia = new RegistroAlgoritmos();
+        }
+        return instancia;
+    }
+
+    private void agregar(ProveedorAlgoritmos proveedor) {
+        for (DescripcionAlgoritmo descripcion : proveedor.getAlgoritmos()) {
+            algoritmos.putIfAbsent(descripcion.getNombre(), descripcion);
+        }
+    }
+
+    /**
+     * Todos los algoritmos registrados, en orden
+     */
+    public List<DescripcionAlgoritmo> getAlgoritmos() {
+        return Collections.unmodifiableList(new ArrayList<>(algoritmos.values()));
+    }
+
+    /**
+     * Los algoritmos cuyo tamaño máximo recomendado admite el laberinto, sin
+     * los compuestos: son los que corren las comparaciones y entre los que
+     * elige Auto
+     */
+    public List<DescripcionAlgoritmo> getRecomendados(Laberinto laberinto) {
+        List<DescripcionAlgoritmo> recomendados = new ArrayList<>();
+        for (DescripcionAlgoritmo descripcion : algoritmos.values()) {
+            if (!descripcion.isCompuesto() && descripcion.isRecomendadoPara(laberinto)) {
+                recomendados.add(descripcion);
+            }
+        }
+        return recomendados;
+    }
+
+    public String[] getNombres() {
+        return algoritmos.keySet().toArray(new String[0]);
+    }
+
+    /**
+     * @throws IllegalArgumentException si no hay un algoritmo con ese nombre
+     */
+    public DescripcionAlgoritmo buscar(String nombre) {
+        DescripcionAlgoritmo descripcion = algoritmos.get(nombre);
+        if (descripcion == null) {
+            throw new IllegalArgumentException("Algoritmo desconocido: " + nombre);
+        }
+        return descripcion;
+    }
+
+    public AlgoritmoLaberinto crear(String nombre, Laberinto laberinto) {
+        return buscar(nombre).crear(laberinto);
+    }
+}
@@ -0,0 +1,158 @@
+package controllers;
+
+import model.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Portafolio de algoritmos: lanza BFS, DFS, A* y BFS bidireccional a la vez
+ * sobre el mismo laberinto y se queda con la primera respuesta válida.
+ * "Válida" es un resultado completo (no cortado por el control), con camino
+ * o demostrando que no lo hay. En modo solo óptimos DFS no participa, así
+ * que la primera respuesta ya es un camino más corto.
+ *
+ * Cada motor corre con un control hijo de la carrera, que a su vez es hijo
+ * del control recibido: cancelar la carrera detiene a los perdedores en su
+ * próximo chequeo, y cancelar desde afuera detiene a todos. Los nodos de
+ * todos los motores se suman en el control recibido: su progreso avanza
+ * durante la carrera y su presupuesto acota el total. El resultado trae el
+ * camino y las métricas del ganador y su nombre en motorGanador.
+ */
+public class ResolvedorPortafolio implements AlgoritmoLaberinto {
+    private static final ExecutorService HILOS = Executors.newCachedThreadPool(crearFabricaHilos());
+
+    private Laberinto laberinto;
+    private boolean soloOptimos;
+    private String nombre;
+    private boolean interrumpido;
+
+    public ResolvedorPortafolio(Laberinto laberinto) {
+        this(laberinto, false);
+    }
+
+    /**
+     * @param soloOptimos true para aceptar solo caminos más cortos (sin DFS)
+     */
+    public ResolvedorPortafolio(Laberinto laberinto, boolean soloOptimos) {
+        this.laberinto = laberinto;
+        this.soloOptimos = soloOptimos;
+        this.nombre = soloOptimos ? "Portafolio (solo óptimos)" : "Portafolio";
+    }
+
+    @Override
+    public String getNombre() {
+        return nombre;
+    }
+
+    @Override
+    public boolean isParalelo() {
+        return true;
+    }
+
+    /**
+     * Motores de la carrera; los primeros arrancan antes si hay menos núcleos que motores
+     */
+    private List<AlgoritmoLaberinto> crearMotores() {
+        List<AlgoritmoLaberinto> motores = new ArrayList<>();
+        motores.add(new AEstrella(laberinto));
+        motores.add(new BFSBidireccional(laberinto));
+        motores.add(new BFS(laberinto));
+        if (!soloOptimos) motores.add(new DFS(laberinto));
+        return motores;
+    }
+
+    @Override
+    public ResultadoEjecucion resolver(ControlEjecucion control) {
+        ResultadoEjecucion resultado = new ResultadoEjecucion(nombre);
+        long tiempoInicio = System.nanoTime();
+
+        interrumpido = false;
+        ControlEjecucion carrera = new ControlEjecucion(control);
+        CompletionService<ResultadoEjecucion> servicio = new ExecutorCompletionService<>(HILOS);
+        int pendientes = 0;
+        for (AlgoritmoLaberinto motor : crearMotores()) {
+            ControlEjecucion propio = new ControlEjecucion(carrera);
+            servicio.submit(() -> motor.resolver(propio));
+            pendientes++;
+        }
+
+        ResultadoEjecucion ganador = null;
+        ResultadoEjecucion parcial = null;
+        for (; pendientes > 0 && ganador == null; pendientes--) {
+            ResultadoEjecucion respuesta = esperarSiguiente(servicio, carrera);
+            if (respuesta == null) continue;
+            if (!respuesta.isInterrumpido()) {
+                ganador = respuesta;
+            } else if (parcial == null) {
+                parcial = respuesta;
+            }
+        }
+        long tiempoNs = System.nanoTime() - tiempoInicio;
+
+        // Detener a los perdedores y esperar a que devuelvan sus contextos
+        carrera.cancelar();
+        for (; pendientes > 0; pendientes--) {
+            esperarSiguiente(servicio, carrera);
+        }
+        if (interrumpido) Thread.currentThread().interrupt();
+
+        if (ganador != null) {
+            copiarMetricas(ganador, resultado);
+            resultado.setMotorGanador(ganador.getNombreAlgoritmo());
+        } else if (parcial != null) {
+            // Nadie terminó: el control de afuera cortó la carrera
+            copiarMetricas(parcial, resultado);
+            resultado.setEstado(parcial.getEstado());
+        } else {
+            throw new IllegalStateException("Ningún motor del portafolio devolvió un resultado");
+        }
+
+        resultado.setTiempoEjecucionNs(tiempoNs);
+        return resultado;
+    }
+
+    private static void copiarMetricas(ResultadoEjecucion origen, ResultadoEjecucion destino) {
+        destino.setCamino(origen.getCamino());
+        destino.setEncontroSolucion(origen.isEncontroSolucion());
+        destino.setOrdenVisitas(origen.getOrdenVisitas());
+        destino.setCeldasVisitadas(origen.getCeldasVisitadas());
+        destino.setNodosExpandidos(origen.getNodosExpandidos());
+        destino.setExpansionesPorLado(origen.getExpansionesDesdeInicio(), origen.getExpansionesDesdeFin());
+    }
+
+    /**
+     * Próxima respuesta de la carrera, o null si ese motor falló. Si el hilo
+     * que espera es interrumpido se cancela la carrera y se sigue esperando:
+     * los motores devuelven enseguida resultados parciales.
+     */
+    private ResultadoEjecucion esperarSiguiente(CompletionService<ResultadoEjecucion> servicio,
+                                                ControlEjecucion carrera) {
+        while (true) {
+            try {
+                return servicio.take().get();
+            } catch (InterruptedException e) {
+                interrumpido = true;
+                carrera.cancelar();
+            } catch (ExecutionException e) {
+                e.getCause().printStackTrace();
+                return null;
+            }
+        }
+    }
+
+    private static ThreadFactory crearFabricaHilos() {
+        AtomicInteger numero = new AtomicInteger();
+        return tarea -> {
+            Thread hilo = new Thread(tarea, "portafolio-" + numero.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        };
+    }
+}
@@ -1,5 +1,6 @@
 package data;
 
+import model.CaracteristicasLaberinto;
 import model.ResultadoEjecucion;
 import java.io.*;
 import java.text.SimpleDateFormat;
@@ -7,13 +8,27 @@ import java.util.*;
 
 /**
  * Clase para guardar y leer resultados de algoritmos en CSV
+ *
+ * Además del resumen por algoritmo y tamaño se guardan dos registros que
+ * solo crecen: las muestras (cada ejecución con los rasgos del laberinto,
+ * para la elección automática) y las predicciones de esa elección junto con
+ * el tiempo real.
  */
 public class GuardadorDatos {
+    private static final String ENCABEZADO_MUESTRAS =
+        "Algoritmo,Filas,Columnas,ProporcionLibres,Callejones,DistanciaInicioFin,Tiempo(ns),Resuelto,Fecha";
+    private static final String ENCABEZADO_PREDICCIONES =
+        "Algoritmo,Filas,Columnas,Previsto(ns),Real(ns),Fecha";
+    
     private String archivoName;
+    private String archivoMuestras;
+    private String archivoPredicciones;
     private int contadorID = 1;
     
     public GuardadorDatos() {
         this.archivoName = "resultados_laberinto.csv";
+        this.archivoMuestras = "muestras_laberinto.csv";
+        this.archivoPredicciones = "predicciones_auto.csv";
         // Leer el archivo existente para obtener el último ID
         List<String[]> registros = leerTodos();
         if (!registros.isEmpty()) {
@@ -59,12 +74,77 @@ public class GuardadorDatos {
         escribirTodos(registros);
     }
     
+    /**
+     * Guarda el resultado como guardarResultado(resultado, filas, columnas)
+     * y además agrega una muestra con los rasgos del laberinto
+     */
+    public void guardarResultado(ResultadoEjecucion resultado, CaracteristicasLaberinto caracteristicas) {
+        guardarResultado(resultado, caracteristicas.getFilas(), caracteristicas.getColumnas());
+        agregarLinea(archivoMuestras, ENCABEZADO_MUESTRAS,
+            resultado.getNombreAlgoritmo(),
+            String.valueOf(caracteristicas.getFilas()),
+            String.valueOf(caracteristicas.getColumnas()),
+            String.format(Locale.ROOT, "%.4f", caracteristicas.getProporcionLibres()),
+            String.valueOf(caracteristicas.getCallejones()),
+            String.valueOf(caracteristicas.getDistanciaInicioFin()),
+            String.valueOf(resultado.getTiempoEjecucionNs()),
+            resultado.isEncontroSolucion() ? "SI" : "NO",
+            fechaActual());
+    }
+    
+    /**
+     * Lee todas las muestras guardadas con sus rasgos
+     */
+    public List<Muestra> leerMuestras() {
+        List<Muestra> muestras = new ArrayList<>();
+        for (String[] registro : leerArchivo(archivoMuestras, 8)) {
+            try {
+                CaracteristicasLaberinto caracteristicas = new CaracteristicasLaberinto(
+                    Integer.parseInt(registro[1]),
+                    Integer.parseInt(registro[2]),
+                    Double.parseDouble(registro[3]),
+                    Integer.parseInt(registro[4]),
+                    Integer.parseInt(registro[5]));
+                muestras.add(new Muestra(registro[0], caracteristicas,
+                    Long.parseLong(registro[6]), registro[7].equals("SI")));
+            } catch (NumberFormatException e) {
+                // Línea dañada: se ignora
+            }
+        }
+        return muestras;
+    }
+    
+    /**
+     * Registra el tiempo previsto por la elección automática y el real
+     */
+    public void guardarPrediccion(String algoritmo, CaracteristicasLaberinto caracteristicas,
+                                  long previstoNs, long realNs) {
+        agregarLinea(archivoPredicciones, ENCABEZADO_PREDICCIONES,
+            algoritmo,
+            String.valueOf(caracteristicas.getFilas()),
+            String.valueOf(caracteristicas.getColumnas()),
+            String.valueOf(previstoNs),
+            String.valueOf(realNs),
+            fechaActual());
+    }
+    
+    /**
+     * Lee las predicciones guardadas (Algoritmo, Filas, Columnas, Previsto, Real, Fecha)
+     */
+    public List<String[]> leerPredicciones() {
+        return leerArchivo(archivoPredicciones, 5);
+    }
+    
     /**
      * Lee todos los resultados del archivo CSV
      */
     public List<String[]> leerTodos() {
+        return leerArchivo(archivoName, 8);
+    }
+    
+    private List<String[]> leerArchivo(String nombre, int minimoColumnas) {
         List<String[]> registros = new ArrayList<>();
-        File archivo = new File(archivoName);
+        File archivo = new File(nombre);
         
         if (!archivo.exists()) {
             return registros;
@@ -81,7 +161,7 @@ public class GuardadorDatos {
                 }
                 
                 String[] datos = linea.split(",");
-                if (datos.length >= 8) { // Mínimo 8 columnas
+                if (datos.length >= minimoColumnas) {
                     registros.add(datos);
                 }
             }
@@ -115,6 +195,7 @@ public class GuardadorDatos {
         for (String[] registro : registros) {
             if (registro.length >= 8) {
                 String algoritmo = registro[1];
+                int totalCeldas = Integer.parseInt(registro[2]) * Integer.parseInt(registro[3]);
                 long tiempoNs = Long.parseLong(registro[4]);
                 int celdas = Integer.parseInt(registro[5]);
                 int longitud = Integer.parseInt(registro[6]);
@@ -122,7 +203,7 @@ public class GuardadorDatos {
                 
                 EstadisticasAlgoritmo stats = estadisticas.getOrDefault(algoritmo, 
                     new EstadisticasAlgoritmo(algoritmo));
-                stats.agregarEjecucion(tiempoNs, celdas, longitud, resuelto);
+                stats.agregarEjecucion(tiempoNs, celdas, longitud, resuelto, totalCeldas);
                 estadisticas.put(algoritmo, stats);
             }
         }
@@ -131,12 +212,31 @@ public class GuardadorDatos {
     }
     
     /**
-     * Elimina todos los registros
+     * Agrega una línea al final de un CSV, con encabezado si el archivo es nuevo
+     */
+    private void agregarLinea(String nombre, String encabezado, String... campos) {
+        boolean nuevo = !new File(nombre).exists();
+        try (PrintWriter pw = new PrintWriter(new FileWriter(nombre, true))) {
+            if (nuevo) pw.println(encabezado);
+            pw.println(String.join(",", campos));
+        } catch (IOException e) {
+            System.err.println("Error al escribir " + nombre + ": " + e.getMessage());
+        }
+    }
+    
+    private static String fechaActual() {
+        return new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date());
+    }
+    
+    /**
+     * Elimina todos los registros (también las muestras y las predicciones)
      */
     public void limpiarRegistros() {
-        File archivo = new File(archivoName);
-        if (archivo.exists()) {
-            archivo.delete();
+        for (String nombre : new String[] {archivoName, archivoMuestras, archivoPredicciones}) {
+            File archivo = new File(nombre);
+            if (archivo.exists()) {
+                archivo.delete();
+            }
         }
         contadorID = 1;
     }
@@ -174,6 +274,28 @@ public class GuardadorDatos {
         }
     }
     
+    /**
+     * Una ejecución guardada con los rasgos del laberinto
+     */
+    public static class Muestra {
+        private final String algoritmo;
+        private final CaracteristicasLaberinto caracteristicas;
+        private final long tiempoNs;
+        private final boolean resuelto;
+        
+        public Muestra(String algoritmo, CaracteristicasLaberinto caracteristicas, long tiempoNs, boolean resuelto) {
+            this.algoritmo = algoritmo;
+            this.caracteristicas = caracteristicas;
+            this.tiempoNs = tiempoNs;
+            this.resuelto = resuelto;
+        }
+        
+        public String getAlgoritmo() { return algoritmo; }
+        public CaracteristicasLaberinto getCaracteristicas() { return caracteristicas; }
+        public long getTiempoNs() { return tiempoNs; }
+        public boolean isResuelto() { return resuelto; }
+    }
+    
     /**
      * Clase interna para estadísticas agregadas
      */
@@ -185,6 +307,8 @@ public class GuardadorDatos {
         private long tiempoMinimo = Long.MAX_VALUE;
         private long tiempoMaximo = 0;
         private int celdasTotal = 0;
+        private double tiempoPorCeldaTotal = 0;
+        private int ejecucionesConTamano = 0;
         
         public EstadisticasAlgoritmo(String nombre) {
             this.nombre = nombre;
@@ -199,6 +323,25 @@ public class GuardadorDatos {
             celdasTotal += celdas;
         }
         
+        /**
+         * Igual que la anterior, pero además acumula el tiempo por celda del
+         * laberinto para estimar el tiempo en otros tamaños
+         */
+        public void agregarEjecucion(long tiempo, int celdas, int longitud, boolean exito, int totalCeldas) {
+            agregarEjecucion(tiempo, celdas, longitud, exito);
+            if (totalCeldas > 0) {
+                tiempoPorCeldaTotal += (double) tiempo / totalCeldas;
+                ejecucionesConTamano++;
+            }
+        }
+        
+        /**
+         * Nanosegundos por celda del laberinto, promedio (0 si no hay datos)
+         */
+        public double getTiempoPorCeldaPromedio() {
+            return ejecucionesConTamano > 0 ? tiempoPorCeldaTotal / ejecucionesConTamano : 0;
+        }
+        
         public double getTiempoPromedio() {
             return ejecuciones > 0 ? (double) tiempoTotal / ejecuciones : 0;
         }
@@ -0,0 +1,217 @@
+package data;
+
+import data.GuardadorDatos.EstadisticasAlgoritmo;
+import data.GuardadorDatos.Muestra;
+import model.CaracteristicasLaberinto;
+import model.ResultadoEjecucion;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Elección automática del algoritmo según el historial.
+ * Para cada candidato se buscan las muestras guardadas más parecidas al
+ * laberinto actual (CaracteristicasLaberinto.distancia), se lleva el tiempo
+ * de cada una al tamaño actual y se promedian, con más peso cuanto más
+ * parecidas. El tiempo no crece igual con el tamaño en todos los
+ * algoritmos (A* en una grilla abierta crece con el camino, BFS con el
+ * área), así que el exponente de escala sale de las mismas muestras: la
+ * pendiente de ln(tiempo) contra ln(celdas). Si un candidato no tiene
+ * muestras se usa el tiempo por celda promedio de obtenerEstadisticas().
+ * Gana el de menor tiempo previsto.
+ *
+ * Exploración: un candidato sin ningún historial no se puede comparar, así
+ * que antes de elegir por tiempo se prueba una vez (el primero sin historial
+ * en orden de preferencia). Si esa ejecución no deja muestra, por ejemplo
+ * porque se cortó, no se vuelve a probar en la sesión.
+ */
+public class PredictorRendimiento {
+    /** Tiempo previsto cuando no hay historial del algoritmo */
+    public static final long SIN_DATOS = -1;
+
+    private static final int VECINOS = 5;
+    // Evita que una muestra idéntica (distancia 0) tenga peso infinito
+    private static final double SUAVIZADO = 0.05;
+    // Límites del exponente de escala, para que pocas muestras ruidosas no lo disparen
+    private static final double EXPONENTE_MINIMO = 0.25;
+    private static final double EXPONENTE_MAXIMO = 1.5;
+
+    private final GuardadorDatos guardador;
+    private final Set<String> explorados = new HashSet<>();
+
+    public PredictorRendimiento(GuardadorDatos guardador) {
+        this.guardador = guardador;
+    }
+
+    /**
+     * Algoritmo elegido y el tiempo que se espera que tarde
+     */
+    public static class Prediccion {
+        private final String algoritmo;
+        private final long tiempoNs;
+        private final int muestras;
+
+        public Prediccion(String algoritmo, long tiempoNs, int muestras) {
+            this.algoritmo = algoritmo;
+            this.tiempoNs = tiempoNs;
+            this.muestras = muestras;
+        }
+
+        public String getAlgoritmo() { return algoritmo; }
+        public long getTiempoNs() { return tiempoNs; }
+        /** Muestras parecidas usadas (0 si la previsión salió del promedio general) */
+        public int getMuestras() { return muestras; }
+        public boolean hayDatos() { return tiempoNs != SIN_DATOS; }
+    }
+
+    /**
+     * Error de las predicciones guardadas
+     */
+    public static class Precision {
+        private final int cantidad;
+        private final double errorMedio;
+
+        public Precision(int cantidad, double errorMedio) {
+            this.cantidad = cantidad;
+            this.errorMedio = errorMedio;
+        }
+
+        public int getCantidad() { return cantidad; }
+        /** Promedio de |real - previsto| / real (0.2 = 20 %) */
+        public double getErrorMedio() { return errorMedio; }
+    }
+
+    /**
+     * Elige entre los candidatos el de menor tiempo previsto, salvo que
+     * alguno sin historial todavía no se haya probado en la sesión: entonces
+     * devuelve ese, sin tiempo previsto. Si ninguno tiene historial y ya se
+     * probaron todos devuelve el primero.
+     * @param candidatos nombres de algoritmos, en orden de preferencia
+     */
+    public Prediccion elegir(CaracteristicasLaberinto caracteristicas, List<String> candidatos) {
+        List<Muestra> muestras = guardador.leerMuestras();
+        Map<String, EstadisticasAlgoritmo> estadisticas = null;
+        Prediccion mejor = null;
+
+        for (String candidato : candidatos) {
+            Prediccion prediccion = predecirPorVecinos(candidato, caracteristicas, muestras);
+            if (!prediccion.hayDatos()) {
+                if (estadisticas == null) estadisticas = guardador.obtenerEstadisticas();
+                prediccion = predecirPorTamano(candidato, caracteristicas, estadisticas);
+            }
+            if (!prediccion.hayDatos() && explorados.add(candidato)) {
+                return prediccion;
+            }
+            if (prediccion.hayDatos() && (mejor == null || prediccion.getTiempoNs() < mejor.getTiempoNs())) {
+                mejor = prediccion;
+            }
+        }
+
+        return mejor != null ? mejor : new Prediccion(candidatos.get(0), SIN_DATOS, 0);
+    }
+
+    private Prediccion predecirPorVecinos(String algoritmo, CaracteristicasLaberinto caracteristicas,
+                                          List<Muestra> muestras) {
+        List<Muestra> propias = new ArrayList<>();
+        for (Muestra muestra : muestras) {
+            if (muestra.getAlgoritmo().equals(algoritmo) && muestra.isResuelto()) {
+                propias.add(muestra);
+            }
+        }
+        if (propias.isEmpty()) return new Prediccion(algoritmo, SIN_DATOS, 0);
+
+        propias.sort(Comparator.comparingDouble(m -> m.getCaracteristicas().distancia(caracteristicas)));
+        int usadas = Math.min(VECINOS, propias.size());
+        double[] pesos = new double[usadas];
+        for (int i = 0; i < usadas; i++) {
+            pesos[i] = 1 / (propias.get(i).getCaracteristicas().distancia(caracteristicas) + SUAVIZADO);
+        }
+        double exponente = estimarExponente(propias, pesos);
+
+        double suma = 0;
+        double sumaPesos = 0;
+        for (int i = 0; i < usadas; i++) {
+            Muestra muestra = propias.get(i);
+            double escala = Math.pow((double) caracteristicas.getTotalCeldas()
+                / muestra.getCaracteristicas().getTotalCeldas(), exponente);
+            suma += pesos[i] * muestra.getTiempoNs() * escala;
+            sumaPesos += pesos[i];
+        }
+
+        return new Prediccion(algoritmo, Math.round(suma / sumaPesos), usadas);
+    }
+
+    /**
+     * Pendiente de ln(tiempo) contra ln(celdas) por mínimos cuadrados
+     * ponderados sobre las primeras pesos.length muestras; 1 (tiempo
+     * proporcional a las celdas) si todas son del mismo tamaño
+     */
+    private static double estimarExponente(List<Muestra> muestras, double[] pesos) {
+        double sumaPesos = 0;
+        double mediaX = 0;
+        double mediaY = 0;
+        for (int i = 0; i < pesos.length; i++) {
+            Muestra muestra = muestras.get(i);
+            sumaPesos += pesos[i];
+            mediaX += pesos[i] * Math.log(muestra.getCaracteristicas().getTotalCeldas());
+            mediaY += pesos[i] * Math.log(Math.max(1, muestra.getTiempoNs()));
+        }
+        mediaX /= sumaPesos;
+        mediaY /= sumaPesos;
+
+        double covarianza = 0;
+        double varianza = 0;
+        for (int i = 0; i < pesos.length; i++) {
+            Muestra muestra = muestras.get(i);
+            double dx = Math.log(muestra.getCaracteristicas().getTotalCeldas()) - mediaX;
+            double dy = Math.log(Math.max(1, muestra.getTiempoNs())) - mediaY;
+            covarianza += pesos[i] * dx * dy;
+            varianza += pesos[i] * dx * dx;
+        }
+        if (varianza < 1e-6) return 1;
+        return Math.max(EXPONENTE_MINIMO, Math.min(EXPONENTE_MAXIMO, covarianza / varianza));
+    }
+
+    private Prediccion predecirPorTamano(String algoritmo, CaracteristicasLaberinto caracteristicas,
+                                         Map<String, EstadisticasAlgoritmo> estadisticas) {
+        EstadisticasAlgoritmo stats = estadisticas.get(algoritmo);
+        if (stats == null || stats.getTiempoPorCeldaPromedio() <= 0) {
+            return new Prediccion(algoritmo, SIN_DATOS, 0);
+        }
+        return new Prediccion(algoritmo,
+            Math.round(stats.getTiempoPorCeldaPromedio() * caracteristicas.getTotalCeldas()), 0);
+    }
+
+    /**
+     * Guarda el tiempo previsto junto con el real (si había previsión)
+     */
+    public void registrar(Prediccion prediccion, CaracteristicasLaberinto caracteristicas,
+                          ResultadoEjecucion resultado) {
+        if (!prediccion.hayDatos()) return;
+        guardador.guardarPrediccion(prediccion.getAlgoritmo(), caracteristicas,
+            prediccion.getTiempoNs(), resultado.getTiempoEjecucionNs());
+    }
+
+    /**
+     * Error relativo medio de todas las predicciones guardadas
+     */
+    public Precision medirPrecision() {
+        int cantidad = 0;
+        double errores = 0;
+        for (String[] registro : guardador.leerPredicciones()) {
+            try {
+                long previsto = Long.parseLong(registro[3]);
+                long real = Long.parseLong(registro[4]);
+                if (real <= 0) continue;
+                errores += Math.abs(real - previsto) / (double) real;
+                cantidad++;
+            } catch (NumberFormatException e) {
+                // Línea dañada: se ignora
+            }
+        }
+        return new Precision(cantidad, cantidad > 0 ? errores / cantidad : 0);
+    }
+}
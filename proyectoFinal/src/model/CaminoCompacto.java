@@ -0,0 +1,120 @@
+package model;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Camino guardado como direcciones de 2 bits por paso (ARRIBA, DERECHA,
+ * ABAJO, IZQUIERDA), 32 pasos por long. Cada palabra guarda además el índice
+ * de la celda donde empieza, así get(i) reconstruye como máximo 31 pasos y
+ * la lista se puede recorrer por posición. Ocupa unos 3 bits por celda en
+ * lugar de los 32 de un arreglo de índices.
+ *
+ * Las Celda se crean al pedirlas, igual que en VistaCeldas.
+ */
+public class CaminoCompacto extends AbstractList<Celda> implements RandomAccess {
+    private static final int BITS_PASOS = 5; // 32 pasos por palabra
+    private static final int MASCARA_PASOS = (1 << BITS_PASOS) - 1;
+
+    private final Laberinto laberinto;
+    private final int[] desplazamientos;
+    private final int[] puntos;
+    private final long[] direcciones;
+    private final int tamano;
+
+    private CaminoCompacto(Laberinto laberinto, int[] puntos, long[] direcciones, int tamano) {
+        this.laberinto = laberinto;
+        this.desplazamientos = desplazamientos(laberinto.getColumnas());
+        this.puntos = puntos;
+        this.direcciones = direcciones;
+        this.tamano = tamano;
+    }
+
+    /**
+     * Comprime una secuencia de celdas vecinas
+     * @return el camino comprimido, o null si dos celdas consecutivas no son
+     *         vecinas (la secuencia no se puede escribir como direcciones)
+     */
+    public static CaminoCompacto comprimir(Laberinto laberinto, ListaEnteros indices) {
+        int tamano = indices.tamano();
+        int palabras = (tamano + MASCARA_PASOS) >>> BITS_PASOS;
+        int[] puntos = new int[palabras];
+        long[] direcciones = new long[palabras];
+        int[] desplazamientos = desplazamientos(laberinto.getColumnas());
+
+        for (int i = 0; i < tamano; i++) {
+            int celda = indices.get(i);
+            if ((i & MASCARA_PASOS) == 0) {
+                puntos[i >>> BITS_PASOS] = celda;
+            }
+            if (i + 1 < tamano) {
+                int direccion = direccion(desplazamientos, indices.get(i + 1) - celda);
+                if (direccion < 0) return null;
+                direcciones[i >>> BITS_PASOS] |= (long) direccion << ((i & MASCARA_PASOS) << 1);
+            }
+        }
+        return new CaminoCompacto(laberinto, puntos, direcciones, tamano);
+    }
+
+    // Diferencia de índice de un paso en cada dirección (orden de Laberinto.ARRIBA...)
+    private static int[] desplazamientos(int columnas) {
+        int[] desplazamientos = new int[4];
+        desplazamientos[Laberinto.ARRIBA] = -columnas;
+        desplazamientos[Laberinto.DERECHA] = 1;
+        desplazamientos[Laberinto.ABAJO] = columnas;
+        desplazamientos[Laberinto.IZQUIERDA] = -1;
+        return desplazamientos;
+    }
+
+    private static int direccion(int[] desplazamientos, int diferencia) {
+        for (int d = 0; d < 4; d++) {
+            if (desplazamientos[d] == diferencia) return d;
+        }
+        return -1;
+    }
+
+    /**
+     * Índice de la celda en la posición dada
+     */
+    public int getIndice(int posicion) {
+        if (posicion < 0 || posicion >= tamano) {
+            throw new IndexOutOfBoundsException("Posición: " + posicion + ", tamaño: " + tamano);
+        }
+        int palabra = posicion >>> BITS_PASOS;
+        int celda = puntos[palabra];
+        long pasos = direcciones[palabra];
+        for (int i = posicion & MASCARA_PASOS; i > 0; i--) {
+            celda += desplazamientos[(int) pasos & 3];
+            pasos >>>= 2;
+        }
+        return celda;
+    }
+
+    @Override
+    public Celda get(int posicion) {
+        return laberinto.getCelda(getIndice(posicion));
+    }
+
+    @Override
+    public int size() {
+        return tamano;
+    }
+
+    /**
+     * Índices de todas las celdas, en orden (un paso por celda)
+     */
+    public ListaEnteros getIndices() {
+        ListaEnteros indices = new ListaEnteros(tamano);
+        for (int palabra = 0; palabra < puntos.length; palabra++) {
+            int celda = puntos[palabra];
+            long pasos = direcciones[palabra];
+            int hasta = Math.min(tamano, (palabra + 1) << BITS_PASOS);
+            for (int i = palabra << BITS_PASOS; i < hasta; i++) {
+                indices.agregar(celda);
+                celda += desplazamientos[(int) pasos & 3];
+                pasos >>>= 2;
+            }
+        }
+        return indices;
+    }
+}
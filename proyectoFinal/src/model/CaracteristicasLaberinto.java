@@ -0,0 +1,107 @@
+package model;
+
+/**
+ * Rasgos baratos de un laberinto, calculados en una sola pasada, para
+ * comparar laberintos entre sí: tamaño, proporción de celdas libres,
+ * callejones sin salida (celdas libres con un solo vecino libre) y distancia
+ * Manhattan entre inicio y fin.
+ */
+public class CaracteristicasLaberinto {
+    private final int filas;
+    private final int columnas;
+    private final double proporcionLibres;
+    private final int callejones;
+    private final int distanciaInicioFin;
+
+    public CaracteristicasLaberinto(int filas, int columnas, double proporcionLibres,
+                                    int callejones, int distanciaInicioFin) {
+        this.filas = filas;
+        this.columnas = columnas;
+        this.proporcionLibres = proporcionLibres;
+        this.callejones = callejones;
+        this.distanciaInicioFin = distanciaInicioFin;
+    }
+
+    /**
+     * Recorre el laberinto una vez: O(filas * columnas), sin memoria extra
+     */
+    public static CaracteristicasLaberinto calcular(Laberinto laberinto) {
+        int total = laberinto.getTotalCeldas();
+        int libres = 0;
+        int callejones = 0;
+        for (int i = 0; i < total; i++) {
+            if (laberinto.esPared(i)) continue;
+            libres++;
+            if (Integer.bitCount(laberinto.getMascaraVecinos(i)) == 1) callejones++;
+        }
+
+        int inicio = laberinto.getIndiceInicio();
+        int fin = laberinto.getIndiceFin();
+        int distancia = Math.abs(laberinto.getFila(inicio) - laberinto.getFila(fin))
+                      + Math.abs(laberinto.getColumna(inicio) - laberinto.getColumna(fin));
+
+        return new CaracteristicasLaberinto(laberinto.getFilas(), laberinto.getColumnas(),
+            (double) libres / total, callejones, distancia);
+    }
+
+    /**
+     * Disimilitud entre dos laberintos (0 = mismos rasgos). Suma diferencias
+     * en escalas comparables: el tamaño en escala logarítmica y los demás
+     * rasgos como proporciones entre 0 y 1. El tamaño pesa poco (el doble de
+     * celdas suma ln 2 / 4) porque quien compara ya corrige por tamaño; lo
+     * que importa es que el laberinto tenga la misma forma.
+     */
+    public double distancia(CaracteristicasLaberinto otra) {
+        return 0.25 * Math.abs(Math.log(getTotalCeldas()) - Math.log(otra.getTotalCeldas()))
+             + 2 * Math.abs(proporcionLibres - otra.proporcionLibres)
+             + 4 * Math.abs(getDensidadCallejones() - otra.getDensidadCallejones())
+             + Math.abs(getDistanciaRelativa() - otra.getDistanciaRelativa());
+    }
+
+    public int getFilas() {
+        return filas;
+    }
+
+    public int getColumnas() {
+        return columnas;
+    }
+
+    public int getTotalCeldas() {
+        return filas * columnas;
+    }
+
+    public double getProporcionLibres() {
+        return proporcionLibres;
+    }
+
+    public int getCallejones() {
+        return callejones;
+    }
+
+    /**
+     * Callejones por celda libre: cerca de 0 en una grilla abierta, alto en
+     * un laberinto generado con pasillos de una celda
+     */
+    public double getDensidadCallejones() {
+        double libres = proporcionLibres * getTotalCeldas();
+        return libres > 0 ? callejones / libres : 0;
+    }
+
+    public int getDistanciaInicioFin() {
+        return distanciaInicioFin;
+    }
+
+    /**
+     * Distancia Manhattan inicio-fin sobre la mayor posible (esquinas opuestas)
+     */
+    public double getDistanciaRelativa() {
+        int maxima = filas + columnas - 2;
+        return maxima > 0 ? (double) distanciaInicioFin / maxima : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%dx%d, libres %.0f%%, callejones %d, distancia %d",
+            filas, columnas, proporcionLibres * 100, callejones, distanciaInicioFin);
+    }
+}
@@ -1,42 +1,43 @@
 package model;
 
 /**
- * Representa una celda individual del laberinto
+ * Representa una celda individual del laberinto.
+ * Es solo una vista sobre la grilla de bits del Laberinto: los estados
+ * (pared, visitada, en camino) se leen y escriben directamente en él.
  */
 public class Celda {
-    private int fila;
-    private int columna;
-    private boolean esPared;
-    private boolean visitada;
-    private boolean enCamino;
-    
-    public Celda(int fila, int columna) {
+    private final Laberinto laberinto;
+    private final int fila;
+    private final int columna;
+    private final int indice;
+
+    Celda(Laberinto laberinto, int fila, int columna) {
+        this.laberinto = laberinto;
         this.fila = fila;
         this.columna = columna;
-        this.esPared = false;
-        this.visitada = false;
-        this.enCamino = false;
+        this.indice = laberinto.indice(fila, columna);
     }
-    
+
     // Getters y Setters
     public int getFila() { return fila; }
     public int getColumna() { return columna; }
-    public boolean esPared() { return esPared; }
-    public void setPared(boolean esPared) { this.esPared = esPared; }
-    public boolean isVisitada() { return visitada; }
-    public void setVisitada(boolean visitada) { this.visitada = visitada; }
-    public boolean isEnCamino() { return enCamino; }
-    public void setEnCamino(boolean enCamino) { this.enCamino = enCamino; }
-    
+    public int getIndice() { return indice; }
+    public boolean esPared() { return laberinto.esPared(indice); }
+    public void setPared(boolean esPared) { laberinto.setPared(indice, esPared); }
+    public boolean isVisitada() { return laberinto.isVisitada(indice); }
+    public void setVisitada(boolean visitada) { laberinto.setVisitada(indice, visitada); }
+    public boolean isEnCamino() { return laberinto.isEnCamino(indice); }
+    public void setEnCamino(boolean enCamino) { laberinto.setEnCamino(indice, enCamino); }
+
     public void alternar() {
-        this.esPared = !this.esPared;
+        setPared(!esPared());
     }
-    
+
     public void reiniciar() {
-        this.visitada = false;
-        this.enCamino = false;
+        setVisitada(false);
+        setEnCamino(false);
     }
-    
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj) return true;
@@ -44,14 +45,14 @@ public class Celda {
         Celda otra = (Celda) obj;
         return this.fila == otra.fila && this.columna == otra.columna;
     }
-    
+
     @Override
     public int hashCode() {
         return 31 * fila + columna;
     }
-    
+
     @Override
     public String toString() {
         return "Celda(" + fila + ", " + columna + ")";
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,56 @@
+package model;
+
+/**
+ * Cola FIFO de enteros sobre un buffer circular.
+ * La capacidad es potencia de dos y solo crece cuando la cola se llena, así
+ * que la memoria queda acotada por el tamaño máximo de la frontera y no por
+ * el total de celdas encoladas.
+ */
+public class ColaEnteros {
+    private int[] datos;
+    private int cabeza;
+    private int tamano;
+
+    public ColaEnteros() {
+        this(1024);
+    }
+
+    public ColaEnteros(int capacidadInicial) {
+        int capacidad = Integer.highestOneBit(Math.max(2, capacidadInicial - 1)) << 1;
+        this.datos = new int[capacidad];
+    }
+
+    public void agregar(int valor) {
+        if (tamano == datos.length) {
+            crecer();
+        }
+        datos[(cabeza + tamano) & (datos.length - 1)] = valor;
+        tamano++;
+    }
+
+    public int sacar() {
+        int valor = datos[cabeza];
+        cabeza = (cabeza + 1) & (datos.length - 1);
+        tamano--;
+        return valor;
+    }
+
+    public boolean estaVacia() { return tamano == 0; }
+
+    public int tamano() { return tamano; }
+
+    public void limpiar() {
+        cabeza = 0;
+        tamano = 0;
+    }
+
+    private void crecer() {
+        int[] nuevos = new int[datos.length * 2];
+        // Copiar en orden desde la cabeza
+        int primeraParte = datos.length - cabeza;
+        System.arraycopy(datos, cabeza, nuevos, 0, primeraParte);
+        System.arraycopy(datos, 0, nuevos, primeraParte, cabeza);
+        datos = nuevos;
+        cabeza = 0;
+    }
+}
@@ -0,0 +1,136 @@
+package model;
+
+/**
+ * Estado de trabajo de una ejecución de búsqueda (visitadas, padres y camino).
+ * Los algoritmos escriben aquí en lugar de modificar el Laberinto, que solo se
+ * lee. Así varios hilos pueden resolver el mismo laberinto a la vez, cada uno
+ * con su propio contexto y sin clonarlo.
+ *
+ * Las marcas usan épocas: reiniciar el contexto cuesta O(1), por lo que una
+ * búsqueda que toca pocas celdas no paga un recorrido de toda la grilla. Los
+ * contextos se reutilizan con Laberinto.tomarContexto / liberarContexto.
+ */
+public class ContextoBusqueda {
+    public static final int SIN_PADRE = -1;
+
+    private final Laberinto laberinto;
+    private final MarcasEpoca visitadas;
+    private final MarcasEpoca enCamino;
+    private int[] padres;
+    private long[] direcciones;
+    private int[] distancias;
+
+    public ContextoBusqueda(Laberinto laberinto) {
+        this.laberinto = laberinto;
+        this.visitadas = new MarcasEpoca(laberinto.getTotalCeldas());
+        this.enCamino = new MarcasEpoca(laberinto.getTotalCeldas());
+    }
+
+    public Laberinto getLaberinto() { return laberinto; }
+
+    public boolean isVisitada(int indice) { return visitadas.get(indice); }
+    public void setVisitada(int indice, boolean visitada) { visitadas.set(indice, visitada); }
+    public void marcarVisitada(int indice) { visitadas.marcar(indice); }
+    public boolean isVisitada(Celda celda) { return visitadas.get(celda.getIndice()); }
+    public void setVisitada(Celda celda, boolean visitada) { visitadas.set(celda.getIndice(), visitada); }
+
+    public boolean isEnCamino(int indice) { return enCamino.get(indice); }
+    public void setEnCamino(int indice, boolean valor) { enCamino.set(indice, valor); }
+    public void setEnCamino(Celda celda, boolean valor) { enCamino.set(celda.getIndice(), valor); }
+
+    /**
+     * Obtiene el padre de una celda visitada en esta búsqueda, o SIN_PADRE si
+     * no se registró ninguno. La tabla no se limpia al reiniciar: solo son
+     * válidos los padres de celdas visitadas en la época actual.
+     */
+    public int getPadre(int indice) {
+        if (padres == null || !visitadas.get(indice)) return SIN_PADRE;
+        return padres[indice];
+    }
+
+    public void setPadre(int indice, int padre) {
+        if (padres == null) {
+            padres = new int[laberinto.getTotalCeldas()];
+        }
+        padres[indice] = padre;
+    }
+
+    /**
+     * Dirección (Laberinto.ARRIBA ... IZQUIERDA) del paso que llevó del padre
+     * a la celda. Ocupa 2 bits por celda en lugar de un int; como la tabla de
+     * padres, solo es válida para celdas visitadas en la búsqueda actual.
+     */
+    public int getDireccionLlegada(int indice) {
+        return (int) (direcciones[indice >>> 5] >>> ((indice & 31) << 1)) & 3;
+    }
+
+    public void setDireccionLlegada(int indice, int direccion) {
+        if (direcciones == null) {
+            direcciones = new long[(laberinto.getTotalCeldas() + 31) >>> 5];
+        }
+        int desplazamiento = (indice & 31) << 1;
+        long palabra = direcciones[indice >>> 5] & ~(3L << desplazamiento);
+        direcciones[indice >>> 5] = palabra | ((long) direccion << desplazamiento);
+    }
+
+    /**
+     * Reconstruye el camino de origen a destino siguiendo las direcciones de
+     * llegada hacia atrás y luego lo invierte: O(L), sin inserciones al inicio.
+     */
+    public ListaEnteros reconstruirCamino(int origen, int destino) {
+        ListaEnteros camino = new ListaEnteros();
+        int actual = destino;
+
+        camino.agregar(actual);
+        while (actual != origen) {
+            int direccion = getDireccionLlegada(actual);
+            actual = laberinto.getVecino(actual, Laberinto.direccionOpuesta(direccion));
+            camino.agregar(actual);
+        }
+
+        camino.invertir();
+        return camino;
+    }
+
+    /**
+     * Distancia (costo acumulado) desde el origen de la búsqueda. Igual que la
+     * tabla de padres, solo es válida para celdas visitadas en la época actual.
+     */
+    public int getDistancia(int indice) {
+        return distancias[indice];
+    }
+
+    public void setDistancia(int indice, int distancia) {
+        if (distancias == null) {
+            distancias = new int[laberinto.getTotalCeldas()];
+        }
+        distancias[indice] = distancia;
+    }
+
+    /**
+     * Máscara de direcciones transitables desde una celda hacia vecinos que
+     * este contexto aún no visitó (ver Laberinto.getMascaraVecinos)
+     */
+    public int getMascaraNoVisitados(int indice) {
+        int mascara = laberinto.getMascaraVecinos(indice);
+        int resultado = mascara;
+
+        while (mascara != 0) {
+            int direccion = Integer.numberOfTrailingZeros(mascara);
+            mascara &= mascara - 1;
+            if (visitadas.get(laberinto.getVecino(indice, direccion))) {
+                resultado &= ~(1 << direccion);
+            }
+        }
+
+        return resultado;
+    }
+
+    /**
+     * Deja el contexto listo para una nueva búsqueda en O(1)
+     */
+    public void reiniciar() {
+        visitadas.reiniciar();
+        enCamino.reiniciar();
+    }
+}
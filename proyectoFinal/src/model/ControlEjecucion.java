@@ -0,0 +1,204 @@
+package model;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Control cooperativo de una ejecución: cancelación, tiempo límite y
+ * presupuesto de nodos.
+ * Los algoritmos llaman a debeDetener en su bucle principal con la cantidad
+ * de nodos procesados hasta el momento. El presupuesto se compara siempre
+ * (una comparación de long); la bandera de cancelación y el reloj solo una
+ * de cada 256 llamadas, así el costo por nodo es despreciable.
+ *
+ * cancelar() se puede llamar desde cualquier hilo (por ejemplo el botón
+ * "Detener Ejecución" desde el hilo de la interfaz). Para varias búsquedas
+ * simultáneas conviene un control hijo por búsqueda: cada uno lleva su propio
+ * contador y todos se detienen cuando se cancela el padre. Los hijos suman
+ * sus nodos al padre en cada muestreo, así el progreso del padre cuenta
+ * todas las búsquedas y su presupuesto acota el total entre todas.
+ *
+ * También indica si la ejecución debe registrar el orden de visitas: sin
+ * traza (setRegistrarVisitas(false)) los algoritmos no guardan la lista de
+ * celdas visitadas, que solo sirve para animar, y el resultado la trae vacía.
+ * Con un FlujoVisitas (setFlujo) las visitas se publican en el flujo en vez
+ * de guardarse, para animarlas mientras la búsqueda sigue; el tiempo que el
+ * algoritmo espera a la animación no cuenta para el tiempo límite.
+ */
+public class ControlEjecucion {
+    private static final int MASCARA_MUESTREO = 255;
+
+    private final ControlEjecucion padre;
+    private volatile boolean cancelado;
+    private int llamadas;
+    private long limiteNs;
+    private long presupuestoNodos;
+    private volatile ResultadoEjecucion.Estado motivo;
+    private volatile long nodosProcesados;
+    private final AtomicLong nodosHijos = new AtomicLong();
+    private long nodosInformados; // Lo último que este control sumó al padre
+    private boolean registrarVisitas;
+    private FlujoVisitas flujo;
+
+    public ControlEjecucion() {
+        this(null);
+    }
+
+    /**
+     * Control hijo: hereda el tiempo límite y lo que queda del presupuesto, y
+     * se cancela junto con el padre
+     */
+    public ControlEjecucion(ControlEjecucion padre) {
+        this.padre = padre;
+        this.limiteNs = Long.MAX_VALUE;
+        this.presupuestoNodos = Long.MAX_VALUE;
+        this.motivo = ResultadoEjecucion.Estado.COMPLETO;
+        this.registrarVisitas = true;
+        if (padre != null) {
+            this.limiteNs = padre.limiteNs;
+            this.registrarVisitas = padre.registrarVisitas;
+            if (padre.presupuestoNodos != Long.MAX_VALUE) {
+                this.presupuestoNodos = Math.max(0, padre.presupuestoNodos - padre.getNodosProcesados());
+            }
+        }
+    }
+
+    /**
+     * Control sin límites, para las llamadas a resolver() sin argumentos
+     */
+    public static ControlEjecucion sinLimites() {
+        return new ControlEjecucion();
+    }
+
+    /**
+     * Pide que la ejecución se detenga en el próximo chequeo
+     */
+    public void cancelar() {
+        cancelado = true;
+    }
+
+    public boolean isCancelado() {
+        return cancelado || (padre != null && padre.isCancelado());
+    }
+
+    /**
+     * Fija el tiempo límite contando desde ahora
+     */
+    public void setTiempoLimiteMs(long milisegundos) {
+        long ahora = System.nanoTime();
+        long duracion = milisegundos * 1_000_000L;
+        limiteNs = duracion > Long.MAX_VALUE - ahora ? Long.MAX_VALUE : ahora + duracion;
+    }
+
+    /**
+     * Máximo de nodos (celdas expandidas, pasos de búsqueda) antes de detenerse
+     */
+    public void setPresupuestoNodos(long presupuestoNodos) {
+        this.presupuestoNodos = presupuestoNodos;
+    }
+
+    /**
+     * false para no guardar el orden de visitas (mediciones sin animación);
+     * los controles hijos creados después lo heredan
+     */
+    public void setRegistrarVisitas(boolean registrarVisitas) {
+        this.registrarVisitas = registrarVisitas;
+    }
+
+    public boolean isRegistrarVisitas() {
+        return registrarVisitas;
+    }
+
+    /**
+     * Flujo donde publicar las visitas (null = ninguno). No se hereda: un
+     * flujo admite un solo productor, así que los algoritmos que reparten la
+     * búsqueda entre hilos (isParalelo) no publican visitas.
+     */
+    public void setFlujo(FlujoVisitas flujo) {
+        this.flujo = flujo;
+    }
+
+    public FlujoVisitas getFlujo() {
+        return flujo;
+    }
+
+    /**
+     * Chequeo barato para bucles por nodo; la cancelación y el reloj se
+     * consultan en la primera llamada y luego una de cada 256
+     * @param nodos nodos procesados por el algoritmo hasta ahora
+     * @return true si el algoritmo debe cortar y devolver un resultado parcial
+     */
+    public boolean debeDetener(long nodos) {
+        if (nodos > presupuestoNodos) {
+            return detener(ResultadoEjecucion.Estado.PRESUPUESTO_AGOTADO);
+        }
+        if ((llamadas++ & MASCARA_MUESTREO) != 0) return false;
+        return debeDetenerAhora(nodos);
+    }
+
+    /**
+     * Chequeo completo, para bucles gruesos (un nivel entero de una búsqueda
+     * en amplitud) donde cada vuelta ya cuesta mucho más que leer el reloj
+     */
+    public boolean debeDetenerAhora(long nodos) {
+        // Se publica en los mismos puntos de muestreo: sirve para mostrar progreso
+        nodosProcesados = nodos;
+        if (padre != null) informarAlPadre(nodos);
+        if (isCancelado()) {
+            return detener(ResultadoEjecucion.Estado.CANCELADO);
+        }
+        if (nodos > presupuestoNodos || superaPresupuestoAncestro()) {
+            return detener(ResultadoEjecucion.Estado.PRESUPUESTO_AGOTADO);
+        }
+        if (limiteNs != Long.MAX_VALUE && System.nanoTime() - getEsperaFlujoNs() > limiteNs) {
+            return detener(ResultadoEjecucion.Estado.TIEMPO_AGOTADO);
+        }
+        return false;
+    }
+
+    // Suma al padre (y a sus ancestros) los nodos nuevos desde el último aviso;
+    // si el contador bajó el algoritmo empezó otra pasada desde 0
+    private void informarAlPadre(long nodos) {
+        long nuevos = nodos >= nodosInformados ? nodos - nodosInformados : nodos;
+        nodosInformados = nodos;
+        if (nuevos <= 0) return;
+        for (ControlEjecucion ancestro = padre; ancestro != null; ancestro = ancestro.padre) {
+            ancestro.nodosHijos.addAndGet(nuevos);
+        }
+    }
+
+    private boolean superaPresupuestoAncestro() {
+        for (ControlEjecucion ancestro = padre; ancestro != null; ancestro = ancestro.padre) {
+            if (ancestro.presupuestoNodos != Long.MAX_VALUE
+                    && ancestro.getNodosProcesados() > ancestro.presupuestoNodos) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Lo llama el hilo que resuelve, el mismo que publica en el flujo
+    private long getEsperaFlujoNs() {
+        return flujo != null ? flujo.getEsperaNs() : 0;
+    }
+
+    private boolean detener(ResultadoEjecucion.Estado estado) {
+        motivo = estado;
+        return true;
+    }
+
+    /**
+     * Motivo por el que se detuvo la última ejecución (COMPLETO si no se detuvo)
+     */
+    public ResultadoEjecucion.Estado getMotivo() {
+        return motivo;
+    }
+
+    /**
+     * Último conteo de nodos informado por el algoritmo más lo sumado por los
+     * controles hijos (se actualiza cada 256 chequeos, se puede leer desde
+     * otro hilo)
+     */
+    public long getNodosProcesados() {
+        return nodosProcesados + nodosHijos.get();
+    }
+}
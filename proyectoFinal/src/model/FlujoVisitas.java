@@ -0,0 +1,157 @@
+package model;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Flujo de eventos de una búsqueda en curso: celdas visitadas, celdas del
+ * camino y fin. Un único productor (el hilo que resuelve) los escribe en un
+ * buffer circular de capacidad fija y un único consumidor (la animación) los
+ * va sacando, así la animación empieza con la primera visita y la memoria
+ * queda acotada por el buffer y no por la traza completa.
+ *
+ * Contrapresión: si el buffer está lleno el productor espera a que el
+ * consumidor saque eventos. El tiempo esperado se acumula en getEsperaNs()
+ * para descontarlo de la medición y del tiempo límite (ControlEjecucion).
+ * Si el consumidor abandona (cerrar) el productor deja de esperar y los
+ * eventos siguientes se descartan.
+ *
+ * Sin bloqueos: cada lado escribe solo su propio contador (escritos o
+ * leídos) con lazySet, que publica el evento antes que el contador.
+ */
+public class FlujoVisitas {
+    /** Lo que devuelve tomar() cuando no hay eventos disponibles */
+    public static final int VACIO = Integer.MIN_VALUE;
+
+    private static final int CAPACIDAD_POR_DEFECTO = 4096;
+    private static final long PAUSA_NS = 100_000;
+
+    private final int[] eventos;
+    private final int mascara;
+    private final AtomicLong escritos = new AtomicLong();
+    private final AtomicLong leidos = new AtomicLong();
+    private volatile boolean terminado;
+    private volatile boolean cerrado;
+    private volatile ResultadoEjecucion resultado;
+
+    // Solo del productor
+    private long leidosConocidos;
+    private long esperaNs;
+
+    public FlujoVisitas() {
+        this(CAPACIDAD_POR_DEFECTO);
+    }
+
+    /**
+     * @param capacidad eventos que caben sin esperar (se redondea a potencia de dos)
+     */
+    public FlujoVisitas(int capacidad) {
+        int redondeada = Integer.highestOneBit(Math.max(2, capacidad - 1)) << 1;
+        this.eventos = new int[redondeada];
+        this.mascara = redondeada - 1;
+    }
+
+    // ---- Productor ----
+
+    public void publicarVisita(int indice) {
+        publicar(indice);
+    }
+
+    /**
+     * Celda del camino; se codifica como ~indice (negativo) para distinguirla
+     */
+    public void publicarCamino(int indice) {
+        publicar(~indice);
+    }
+
+    private void publicar(int evento) {
+        long posicion = escritos.get();
+        if (posicion - leidosConocidos > mascara) {
+            leidosConocidos = leidos.get();
+            if (posicion - leidosConocidos > mascara && !esperarEspacio(posicion)) {
+                return;
+            }
+        }
+        eventos[(int) posicion & mascara] = evento;
+        escritos.lazySet(posicion + 1);
+    }
+
+    /**
+     * @return false si el consumidor cerró el flujo mientras se esperaba
+     */
+    private boolean esperarEspacio(long posicion) {
+        long inicio = System.nanoTime();
+        while (posicion - leidosConocidos > mascara) {
+            if (cerrado) {
+                esperaNs += System.nanoTime() - inicio;
+                return false;
+            }
+            LockSupport.parkNanos(PAUSA_NS);
+            leidosConocidos = leidos.get();
+        }
+        esperaNs += System.nanoTime() - inicio;
+        return true;
+    }
+
+    /**
+     * Publica el camino del resultado y marca el fin del flujo
+     * @param resultado resultado final de la búsqueda (null si falló)
+     */
+    public void terminar(ResultadoEjecucion resultado) {
+        if (resultado != null && resultado.isEncontroSolucion()) {
+            for (Celda celda : resultado.getCamino()) {
+                publicarCamino(celda.getIndice());
+            }
+        }
+        this.resultado = resultado;
+        terminado = true;
+    }
+
+    /**
+     * Tiempo que el productor pasó esperando lugar en el buffer (leer desde
+     * el hilo productor, o después de isTerminado)
+     */
+    public long getEsperaNs() {
+        return esperaNs;
+    }
+
+    // ---- Consumidor ----
+
+    /**
+     * Saca el próximo evento sin esperar
+     * @return el evento (ver esCamino e indiceDe), o VACIO si no hay ninguno
+     */
+    public int tomar() {
+        long posicion = leidos.get();
+        if (posicion == escritos.get()) return VACIO;
+        int evento = eventos[(int) posicion & mascara];
+        leidos.lazySet(posicion + 1);
+        return evento;
+    }
+
+    /**
+     * true cuando el productor terminó y ya se sacaron todos los eventos
+     */
+    public boolean isTerminado() {
+        return terminado && leidos.get() == escritos.get();
+    }
+
+    /**
+     * El consumidor ya no va a leer: el productor deja de esperar
+     */
+    public void cerrar() {
+        cerrado = true;
+    }
+
+    public ResultadoEjecucion getResultado() {
+        return resultado;
+    }
+
+    public static boolean esCamino(int evento) {
+        return evento < 0;
+    }
+
+    public static int indiceDe(int evento) {
+        return evento < 0 ? ~evento : evento;
+    }
+}
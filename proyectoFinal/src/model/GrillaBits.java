@@ -0,0 +1,90 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Conjunto de bits de tamaño fijo para guardar un estado booleano por celda.
+ * Cada celda se direcciona con su índice plano (fila * columnas + columna)
+ * y ocupa un solo bit dentro de un long[].
+ */
+public class GrillaBits {
+    private final long[] palabras;
+    private final int tamano;
+
+    public GrillaBits(int tamano) {
+        this.tamano = tamano;
+        this.palabras = new long[(tamano + 63) >>> 6];
+    }
+
+    public boolean get(int indice) {
+        return (palabras[indice >>> 6] & (1L << indice)) != 0;
+    }
+
+    /**
+     * Lee 64 bits consecutivos a partir de indice (bit 0 = indice); los bits
+     * más allá del final de la grilla se leen como 0
+     */
+    public long leer64(int indice) {
+        int palabra = indice >>> 6;
+        int desplazamiento = indice & 63;
+        long bajos = palabras[palabra] >>> desplazamiento;
+        if (desplazamiento == 0 || palabra + 1 >= palabras.length) {
+            return bajos;
+        }
+        return bajos | (palabras[palabra + 1] << (64 - desplazamiento));
+    }
+
+    public void set(int indice, boolean valor) {
+        if (valor) {
+            palabras[indice >>> 6] |= 1L << indice;
+        } else {
+            palabras[indice >>> 6] &= ~(1L << indice);
+        }
+    }
+
+    public void alternar(int indice) {
+        palabras[indice >>> 6] ^= 1L << indice;
+    }
+
+    /**
+     * Pone todos los bits en 0
+     */
+    public void limpiar() {
+        Arrays.fill(palabras, 0L);
+    }
+
+    /**
+     * Pone todos los bits en 1 (sin tocar los bits sobrantes de la última palabra)
+     */
+    public void llenar() {
+        Arrays.fill(palabras, -1L);
+        int sobrantes = tamano & 63;
+        if (sobrantes != 0) {
+            palabras[palabras.length - 1] = (1L << sobrantes) - 1;
+        }
+    }
+
+    /**
+     * Copia el contenido de otra grilla del mismo tamaño
+     */
+    public void copiarDe(GrillaBits otra) {
+        System.arraycopy(otra.palabras, 0, palabras, 0, palabras.length);
+    }
+
+    /**
+     * Agrega los bits en 1 de otra grilla del mismo tamaño (OR)
+     */
+    public void unir(GrillaBits otra) {
+        for (int i = 0; i < palabras.length; i++) {
+            palabras[i] |= otra.palabras[i];
+        }
+    }
+    
+    public GrillaBits copiar() {
+        GrillaBits copia = new GrillaBits(tamano);
+        copia.copiarDe(this);
+        return copia;
+    }
+
+    public int getTamano() { return tamano; }
+}
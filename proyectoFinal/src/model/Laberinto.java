@@ -3,83 +3,140 @@ package model;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
- * Clase que representa el laberinto completo
+ * Clase que representa el laberinto completo.
+ * Las celdas se guardan como bits dentro de GrillaBits, direccionadas por un
+ * índice plano (fila * columnas + columna); los objetos Celda son vistas
+ * que se crean bajo demanda.
+ *
+ * El estado (paredes, inicio y fin) tiene un hash Zobrist de 64 bits que se
+ * mantiene al modificarlo: XOR de una clave por cada pared más las claves
+ * de las posiciones de inicio y fin. Cambiar una celda o un extremo cuesta
+ * un XOR, y getHash() es O(1).
  */
 public class Laberinto {
-    private Celda[][] matriz;
+    // Direcciones de la máscara de vecinos (mismo orden que getVecinos)
+    public static final int ARRIBA = 0;
+    public static final int DERECHA = 1;
+    public static final int ABAJO = 2;
+    public static final int IZQUIERDA = 3;
+    
     private int filas;
     private int columnas;
-    private Celda inicio;
-    private Celda fin;
+    private GrillaBits paredes;
+    private MarcasEpoca visitadas;
+    private MarcasEpoca enCamino;
+    private ConcurrentLinkedQueue<ContextoBusqueda> contextosLibres = new ConcurrentLinkedQueue<>();
+    private int inicio;
+    private int fin;
     private Random random = new Random();
+    // Hash Zobrist del estado; las claves salen de semillaHash y del índice
+    private final long semillaHash;
+    private long hash;
+    
+    // Flujos de claves Zobrist: uno para las paredes y uno para cada extremo
+    private static final int CLAVE_PARED = 0;
+    private static final int CLAVE_INICIO = 1;
+    private static final int CLAVE_FIN = 2;
     
     public Laberinto(int filas, int columnas) {
         this.filas = filas;
         this.columnas = columnas;
-        this.matriz = new Celda[filas][columnas];
         
-        // Inicializar todas las celdas
-        for (int i = 0; i < filas; i++) {
-            for (int j = 0; j < columnas; j++) {
-                matriz[i][j] = new Celda(i, j);
-            }
-        }
+        // Inicializar todas las celdas como camino
+        int total = filas * columnas;
+        this.paredes = new GrillaBits(total);
+        this.visitadas = new MarcasEpoca(total);
+        this.enCamino = new MarcasEpoca(total);
         
         // Establecer inicio y fin por defecto
-        this.inicio = matriz[0][0];
-        this.fin = matriz[filas - 1][columnas - 1];
+        this.inicio = 0;
+        this.fin = total - 1;
+        
+        this.semillaHash = mezclar(((long) filas << 32) | columnas);
+        this.hash = clave(inicio, CLAVE_INICIO) ^ clave(fin, CLAVE_FIN);
     }
     
     public Celda getCelda(int fila, int columna) {
         if (esValida(fila, columna)) {
-            return matriz[fila][columna];
+            return new Celda(this, fila, columna);
         }
         return null;
     }
     
+    /**
+     * Obtiene la vista de la celda a partir de su índice plano
+     */
+    public Celda getCelda(int indice) {
+        return new Celda(this, indice / columnas, indice % columnas);
+    }
+    
     public boolean esValida(int fila, int columna) {
         return fila >= 0 && fila < filas && columna >= 0 && columna < columnas;
     }
     
     public boolean esCaminoLibre(int fila, int columna) {
-        return esValida(fila, columna) && !matriz[fila][columna].esPared();
+        return esValida(fila, columna) && !paredes.get(fila * columnas + columna);
     }
     
     public void alternarCelda(int fila, int columna) {
         if (esValida(fila, columna)) {
-            Celda celda = matriz[fila][columna];
-            if (celda != inicio && celda != fin) {
-                celda.alternar();
+            int indice = indice(fila, columna);
+            if (indice != inicio && indice != fin) {
+                paredes.alternar(indice);
+                hash ^= clave(indice, CLAVE_PARED);
             }
         }
     }
     
+    // Acceso por índice plano
+    public int indice(int fila, int columna) { return fila * columnas + columna; }
+    public int getFila(int indice) { return indice / columnas; }
+    public int getColumna(int indice) { return indice % columnas; }
+    public int getTotalCeldas() { return filas * columnas; }
+    
+    public boolean esPared(int indice) { return paredes.get(indice); }
+    
+    /**
+     * Paredes de las 64 celdas que empiezan en indice (bit 0 = indice), para
+     * recorrer filas de a bloques. Puede incluir celdas de la fila siguiente.
+     */
+    public long getParedes64(int indice) { return paredes.leer64(indice); }
+    public void setPared(int indice, boolean esPared) {
+        if (paredes.get(indice) != esPared) {
+            paredes.set(indice, esPared);
+            hash ^= clave(indice, CLAVE_PARED);
+        }
+    }
+    public boolean isVisitada(int indice) { return visitadas.get(indice); }
+    public void setVisitada(int indice, boolean visitada) { visitadas.set(indice, visitada); }
+    public boolean isEnCamino(int indice) { return enCamino.get(indice); }
+    public void setEnCamino(int indice, boolean valor) { enCamino.set(indice, valor); }
+    
     /**
      * MÉTODO CORREGIDO: Genera un laberinto que siempre tiene solución
      */
     public void generarLaberintoSimple() {
         // Primero, poner todas las celdas como paredes
-        for (int i = 0; i < filas; i++) {
-            for (int j = 0; j < columnas; j++) {
-                matriz[i][j].setPared(true);
-                matriz[i][j].reiniciar();
-            }
-        }
+        paredes.llenar();
+        reiniciarVisitadas();
         
         // Generar laberinto usando algoritmo recursivo
         generarLaberintoRecursivo(0, 0);
         
         // Asegurar que inicio y fin NO sean paredes
-        inicio.setPared(false);
-        fin.setPared(false);
+        paredes.set(inicio, false);
+        paredes.set(fin, false);
         
         // Garantizar que hay un camino al fin
         garantizarCaminoAlFin();
         
         // Crear algunos caminos adicionales para múltiples soluciones
         crearCaminosAdicionales();
+        
+        recalcularHash();
     }
     
     /**
@@ -87,29 +144,29 @@ public class Laberinto {
      */
     private void garantizarCaminoAlFin() {
         // Si el fin está completamente rodeado de paredes, abrir un camino
-        int filaFin = fin.getFila();
-        int colFin = fin.getColumna();
+        int filaFin = getFila(fin);
+        int colFin = getColumna(fin);
         
         // Verificar si el fin está accesible
         boolean accesible = false;
         
         // Verificar vecinos del fin
-        if (filaFin > 0 && !matriz[filaFin-1][colFin].esPared()) accesible = true;
-        if (filaFin < filas-1 && !matriz[filaFin+1][colFin].esPared()) accesible = true;
-        if (colFin > 0 && !matriz[filaFin][colFin-1].esPared()) accesible = true;
-        if (colFin < columnas-1 && !matriz[filaFin][colFin+1].esPared()) accesible = true;
+        if (filaFin > 0 && !paredes.get(fin - columnas)) accesible = true;
+        if (filaFin < filas-1 && !paredes.get(fin + columnas)) accesible = true;
+        if (colFin > 0 && !paredes.get(fin - 1)) accesible = true;
+        if (colFin < columnas-1 && !paredes.get(fin + 1)) accesible = true;
         
         // Si no es accesible, crear un camino
         if (!accesible) {
             // Intentar conectar con el vecino más cercano
             if (filaFin > 0) {
-                matriz[filaFin-1][colFin].setPared(false);
+                paredes.set(fin - columnas, false);
             } else if (colFin > 0) {
-                matriz[filaFin][colFin-1].setPared(false);
+                paredes.set(fin - 1, false);
             } else if (filaFin < filas-1) {
-                matriz[filaFin+1][colFin].setPared(false);
+                paredes.set(fin + columnas, false);
             } else if (colFin < columnas-1) {
-                matriz[filaFin][colFin+1].setPared(false);
+                paredes.set(fin + 1, false);
             }
         }
         
@@ -121,60 +178,61 @@ public class Laberinto {
      * Verifica y garantiza conectividad entre inicio y fin
      */
     private void verificarYConectarCamino() {
-        // Reiniciar estados de visitado
-        reiniciarVisitadas();
+        // Usar un contexto propio para no tocar los estados de visitado
+        ContextoBusqueda contexto = tomarContexto();
         
         // BFS simple para verificar conectividad
-        java.util.Queue<Celda> cola = new java.util.LinkedList<>();
-        cola.offer(inicio);
-        inicio.setVisitada(true);
+        int[] cola = new int[filas * columnas];
+        int cabeza = 0;
+        int ultimo = 0;
+        cola[ultimo++] = inicio;
+        contexto.setVisitada(inicio, true);
         
         boolean encontrado = false;
         
-        while (!cola.isEmpty() && !encontrado) {
-            Celda actual = cola.poll();
+        while (cabeza < ultimo && !encontrado) {
+            int actual = cola[cabeza++];
             
-            if (actual.equals(fin)) {
+            if (actual == fin) {
                 encontrado = true;
                 break;
             }
             
             // Verificar vecinos
-            int fila = actual.getFila();
-            int col = actual.getColumna();
+            int fila = getFila(actual);
+            int col = getColumna(actual);
             
             int[][] dirs = {{-1,0}, {1,0}, {0,-1}, {0,1}};
             for (int[] dir : dirs) {
                 int nuevaFila = fila + dir[0];
                 int nuevaCol = col + dir[1];
                 
-                if (esValida(nuevaFila, nuevaCol) && 
-                    !matriz[nuevaFila][nuevaCol].esPared() && 
-                    !matriz[nuevaFila][nuevaCol].isVisitada()) {
-                    
-                    matriz[nuevaFila][nuevaCol].setVisitada(true);
-                    cola.offer(matriz[nuevaFila][nuevaCol]);
+                if (esValida(nuevaFila, nuevaCol)) {
+                    int vecino = indice(nuevaFila, nuevaCol);
+                    if (!paredes.get(vecino) && !contexto.isVisitada(vecino)) {
+                        contexto.setVisitada(vecino, true);
+                        cola[ultimo++] = vecino;
+                    }
                 }
             }
         }
         
         // Si no se encontró camino, crear uno directo
+        liberarContexto(contexto);
+        
         if (!encontrado) {
             crearCaminoDirecto();
         }
-        
-        // Limpiar estados de visitado
-        reiniciarVisitadas();
     }
     
     /**
      * Crea un camino directo simple entre inicio y fin
      */
     private void crearCaminoDirecto() {
-        int filaActual = inicio.getFila();
-        int colActual = inicio.getColumna();
-        int filaFin = fin.getFila();
-        int colFin = fin.getColumna();
+        int filaActual = getFila(inicio);
+        int colActual = getColumna(inicio);
+        int filaFin = getFila(fin);
+        int colFin = getColumna(fin);
         
         // Primero moverse horizontalmente
         while (colActual != colFin) {
@@ -184,7 +242,7 @@ public class Laberinto {
                 colActual--;
             }
             if (esValida(filaActual, colActual)) {
-                matriz[filaActual][colActual].setPared(false);
+                paredes.set(indice(filaActual, colActual), false);
             }
         }
         
@@ -196,7 +254,7 @@ public class Laberinto {
                 filaActual--;
             }
             if (esValida(filaActual, colActual)) {
-                matriz[filaActual][colActual].setPared(false);
+                paredes.set(indice(filaActual, colActual), false);
             }
         }
     }
@@ -205,7 +263,7 @@ public class Laberinto {
      * Genera el laberinto usando un algoritmo recursivo con backtracking
      */
     private void generarLaberintoRecursivo(int fila, int col) {
-        matriz[fila][col].setPared(false);
+        paredes.set(indice(fila, col), false);
         
         // Direcciones: arriba, derecha, abajo, izquierda (saltando una celda)
         int[][] direcciones = {{0, 2}, {2, 0}, {0, -2}, {-2, 0}};
@@ -223,11 +281,11 @@ public class Laberinto {
             int nuevaFila = fila + dir[0];
             int nuevaCol = col + dir[1];
             
-            if (esValida(nuevaFila, nuevaCol) && matriz[nuevaFila][nuevaCol].esPared()) {
+            if (esValida(nuevaFila, nuevaCol) && paredes.get(indice(nuevaFila, nuevaCol))) {
                 // Abrir el camino entre la celda actual y la nueva
                 int paredFila = fila + dir[0] / 2;
                 int paredCol = col + dir[1] / 2;
-                matriz[paredFila][paredCol].setPared(false);
+                paredes.set(indice(paredFila, paredCol), false);
                 
                 // Continuar recursivamente
                 generarLaberintoRecursivo(nuevaFila, nuevaCol);
@@ -246,14 +304,15 @@ public class Laberinto {
             int col = 1 + random.nextInt(columnas - 2);
             
             // Verificar que tiene al menos 2 vecinos que son camino
+            int actual = indice(fila, col);
             int vecinosCamino = 0;
-            if (fila > 0 && !matriz[fila-1][col].esPared()) vecinosCamino++;
-            if (fila < filas-1 && !matriz[fila+1][col].esPared()) vecinosCamino++;
-            if (col > 0 && !matriz[fila][col-1].esPared()) vecinosCamino++;
-            if (col < columnas-1 && !matriz[fila][col+1].esPared()) vecinosCamino++;
+            if (fila > 0 && !paredes.get(actual - columnas)) vecinosCamino++;
+            if (fila < filas-1 && !paredes.get(actual + columnas)) vecinosCamino++;
+            if (col > 0 && !paredes.get(actual - 1)) vecinosCamino++;
+            if (col < columnas-1 && !paredes.get(actual + 1)) vecinosCamino++;
             
             if (vecinosCamino >= 2) {
-                matriz[fila][col].setPared(false);
+                paredes.set(actual, false);
             }
         }
     }
@@ -268,37 +327,56 @@ public class Laberinto {
         for (int i = 1; i < filas - 1; i += 2) {
             for (int j = 1; j < columnas - 1; j++) {
                 if (j % 3 != 0) {
-                    matriz[i][j].setPared(true);
+                    paredes.set(indice(i, j), true);
                 }
             }
         }
         
-        inicio.setPared(false);
-        fin.setPared(false);
+        paredes.set(inicio, false);
+        paredes.set(fin, false);
         
         garantizarCaminoAlFin();
+        
+        recalcularHash();
     }
     
     /**
      * Limpia el laberinto (todas las celdas como camino)
      */
     public void limpiar() {
-        for (int i = 0; i < filas; i++) {
-            for (int j = 0; j < columnas; j++) {
-                matriz[i][j].setPared(false);
-                matriz[i][j].reiniciar();
-            }
-        }
+        paredes.limpiar();
+        recalcularHash();
+        reiniciarVisitadas();
     }
     
     /**
-     * Reinicia solo los estados de visitado
+     * Reinicia solo los estados de visitado (O(1), ver MarcasEpoca)
      */
     public void reiniciarVisitadas() {
-        for (int i = 0; i < filas; i++) {
-            for (int j = 0; j < columnas; j++) {
-                matriz[i][j].reiniciar();
-            }
+        visitadas.reiniciar();
+        enCamino.reiniciar();
+    }
+    
+    /**
+     * Entrega un contexto de búsqueda limpio, reutilizando uno liberado si hay.
+     * Reutilizarlo evita crear y poner en cero arreglos del tamaño de la grilla
+     * en cada ejecución.
+     */
+    public ContextoBusqueda tomarContexto() {
+        ContextoBusqueda contexto = contextosLibres.poll();
+        if (contexto == null) {
+            return new ContextoBusqueda(this);
+        }
+        contexto.reiniciar();
+        return contexto;
+    }
+    
+    /**
+     * Devuelve un contexto al laberinto para que otra búsqueda lo reutilice
+     */
+    public void liberarContexto(ContextoBusqueda contexto) {
+        if (contexto.getLaberinto() == this) {
+            contextosLibres.offer(contexto);
         }
     }
     
@@ -311,17 +389,61 @@ public class Laberinto {
         int col = celda.getColumna();
         
         // Arriba
-        if (esCaminoLibre(fila - 1, col)) vecinos.add(matriz[fila - 1][col]);
+        if (esCaminoLibre(fila - 1, col)) vecinos.add(new Celda(this, fila - 1, col));
         // Derecha
-        if (esCaminoLibre(fila, col + 1)) vecinos.add(matriz[fila][col + 1]);
+        if (esCaminoLibre(fila, col + 1)) vecinos.add(new Celda(this, fila, col + 1));
         // Abajo
-        if (esCaminoLibre(fila + 1, col)) vecinos.add(matriz[fila + 1][col]);
+        if (esCaminoLibre(fila + 1, col)) vecinos.add(new Celda(this, fila + 1, col));
         // Izquierda
-        if (esCaminoLibre(fila, col - 1)) vecinos.add(matriz[fila][col - 1]);
+        if (esCaminoLibre(fila, col - 1)) vecinos.add(new Celda(this, fila, col - 1));
         
         return vecinos;
     }
     
+    /**
+     * Máscara de 4 bits con las direcciones transitables desde una celda.
+     * El bit d está encendido si el vecino en la dirección d existe y no es
+     * pared. No crea objetos, pensado para los bucles internos:
+     *
+     *   int mascara = laberinto.getMascaraVecinos(actual);
+     *   while (mascara != 0) {
+     *       int d = Integer.numberOfTrailingZeros(mascara);
+     *       mascara &= mascara - 1;
+     *       int vecino = laberinto.getVecino(actual, d);
+     *   }
+     */
+    public int getMascaraVecinos(int indice) {
+        int fila = indice / columnas;
+        int col = indice - fila * columnas;
+        int mascara = 0;
+        
+        if (fila > 0 && !paredes.get(indice - columnas)) mascara |= 1 << ARRIBA;
+        if (col < columnas - 1 && !paredes.get(indice + 1)) mascara |= 1 << DERECHA;
+        if (fila < filas - 1 && !paredes.get(indice + columnas)) mascara |= 1 << ABAJO;
+        if (col > 0 && !paredes.get(indice - 1)) mascara |= 1 << IZQUIERDA;
+        
+        return mascara;
+    }
+    
+    /**
+     * Dirección contraria (ARRIBA <-> ABAJO, DERECHA <-> IZQUIERDA)
+     */
+    public static int direccionOpuesta(int direccion) {
+        return (direccion + 2) & 3;
+    }
+    
+    /**
+     * Índice del vecino en la dirección dada (sin validar límites)
+     */
+    public int getVecino(int indice, int direccion) {
+        switch (direccion) {
+            case ARRIBA: return indice - columnas;
+            case DERECHA: return indice + 1;
+            case ABAJO: return indice + columnas;
+            default: return indice - 1;
+        }
+    }
+    
     /**
      * Obtiene los vecinos no visitados de una celda
      */
@@ -343,37 +465,105 @@ public class Laberinto {
     public Laberinto clonar() {
         Laberinto copia = new Laberinto(this.filas, this.columnas);
         
-        for (int i = 0; i < filas; i++) {
-            for (int j = 0; j < columnas; j++) {
-                copia.matriz[i][j].setPared(this.matriz[i][j].esPared());
-                copia.matriz[i][j].setVisitada(this.matriz[i][j].isVisitada());
-                copia.matriz[i][j].setEnCamino(this.matriz[i][j].isEnCamino());
-            }
-        }
+        copia.paredes.copiarDe(this.paredes);
+        copia.visitadas.copiarDe(this.visitadas);
+        copia.enCamino.copiarDe(this.enCamino);
         
-        copia.inicio = copia.matriz[inicio.getFila()][inicio.getColumna()];
-        copia.fin = copia.matriz[fin.getFila()][fin.getColumna()];
+        copia.inicio = this.inicio;
+        copia.fin = this.fin;
+        copia.hash = this.hash;
         
         return copia;
     }
     
+    /**
+     * Fija la semilla de los generadores para obtener laberintos reproducibles
+     */
+    public void setSemilla(long semilla) {
+        random.setSeed(semilla);
+    }
+    
+    /**
+     * Hash Zobrist de paredes, inicio y fin, en O(1). Dos laberintos de las
+     * mismas dimensiones con el mismo estado dan el mismo valor; los estados
+     * de visitado no cuentan.
+     */
+    public long getHash() {
+        return hash;
+    }
+    
+    /**
+     * Clave Zobrist de una posición en un flujo. En lugar de una tabla de
+     * claves aleatorias (8 bytes por celda, 64 veces lo que ocupan las
+     * paredes) se obtiene mezclando el índice: mezclar es biyectiva, así que
+     * cada par (índice, flujo) tiene su propia clave.
+     */
+    private long clave(int indice, int flujo) {
+        return mezclar(semillaHash + (3L * indice + flujo) * 0x9E3779B97F4A7C15L);
+    }
+    
+    // Finalizador de SplitMix64: cada bit de entrada cambia la mitad de la salida
+    private static long mezclar(long x) {
+        x = (x ^ (x >>> 30)) * 0xBF58476D1CE4E5B9L;
+        x = (x ^ (x >>> 27)) * 0x94D049BB133111EBL;
+        return x ^ (x >>> 31);
+    }
+    
+    /**
+     * Rehace el hash desde cero recorriendo solo las paredes, de a 64 celdas.
+     * Lo usan los generadores y limpiar, que reescriben toda la grilla: sus
+     * cambios sueltos no pasan por setPared para no pagar una clave por cada
+     * celda tocada.
+     */
+    private void recalcularHash() {
+        long nuevo = clave(inicio, CLAVE_INICIO) ^ clave(fin, CLAVE_FIN);
+        int total = getTotalCeldas();
+        for (int base = 0; base < total; base += 64) {
+            long bloque = paredes.leer64(base);
+            while (bloque != 0) {
+                nuevo ^= clave(base + Long.numberOfTrailingZeros(bloque), CLAVE_PARED);
+                bloque &= bloque - 1;
+            }
+        }
+        hash = nuevo;
+    }
+    
     // Getters
     public int getFilas() { return filas; }
     public int getColumnas() { return columnas; }
-    public Celda getInicio() { return inicio; }
-    public Celda getFin() { return fin; }
-    public Celda[][] getMatriz() { return matriz; }
+    public Celda getInicio() { return getCelda(inicio); }
+    public Celda getFin() { return getCelda(fin); }
+    public int getIndiceInicio() { return inicio; }
+    public int getIndiceFin() { return fin; }
+    
+    /**
+     * Construye una matriz de vistas de todas las celdas.
+     * Crea un objeto por celda, evitar en laberintos grandes.
+     */
+    public Celda[][] getMatriz() {
+        Celda[][] matriz = new Celda[filas][columnas];
+        for (int i = 0; i < filas; i++) {
+            for (int j = 0; j < columnas; j++) {
+                matriz[i][j] = new Celda(this, i, j);
+            }
+        }
+        return matriz;
+    }
     
     // Setters para inicio y fin
     public void setInicio(int fila, int columna) {
-        if (esValida(fila, columna) && !matriz[fila][columna].esPared()) {
-            this.inicio = matriz[fila][columna];
+        if (esCaminoLibre(fila, columna)) {
+            hash ^= clave(inicio, CLAVE_INICIO);
+            this.inicio = indice(fila, columna);
+            hash ^= clave(inicio, CLAVE_INICIO);
         }
     }
     
     public void setFin(int fila, int columna) {
-        if (esValida(fila, columna) && !matriz[fila][columna].esPared()) {
-            this.fin = matriz[fila][columna];
+        if (esCaminoLibre(fila, columna)) {
+            hash ^= clave(fin, CLAVE_FIN);
+            this.fin = indice(fila, columna);
+            hash ^= clave(fin, CLAVE_FIN);
         }
     }
 }
\ No newline at end of file
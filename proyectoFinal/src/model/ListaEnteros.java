@@ -0,0 +1,102 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Lista creciente de enteros primitivos (sin Integer ni objetos por elemento).
+ * Sirve para guardar índices de celdas: orden de visitas, caminos y pilas.
+ */
+public class ListaEnteros {
+    private int[] datos;
+    private int tamano;
+
+    public ListaEnteros() {
+        this(16);
+    }
+
+    public ListaEnteros(int capacidadInicial) {
+        this.datos = new int[Math.max(1, capacidadInicial)];
+    }
+
+    /**
+     * Nueva lista con una copia de los valores del arreglo
+     */
+    public static ListaEnteros deArreglo(int[] valores) {
+        ListaEnteros lista = new ListaEnteros(valores.length);
+        System.arraycopy(valores, 0, lista.datos, 0, valores.length);
+        lista.tamano = valores.length;
+        return lista;
+    }
+
+    public void agregar(int valor) {
+        if (tamano == datos.length) {
+            datos = Arrays.copyOf(datos, datos.length * 2);
+        }
+        datos[tamano++] = valor;
+    }
+
+    /**
+     * Agrega al final todos los elementos de otra lista
+     */
+    public void agregarTodos(ListaEnteros otra) {
+        if (tamano + otra.tamano > datos.length) {
+            datos = Arrays.copyOf(datos, Math.max(datos.length * 2, tamano + otra.tamano));
+        }
+        System.arraycopy(otra.datos, 0, datos, tamano, otra.tamano);
+        tamano += otra.tamano;
+    }
+
+    public int get(int posicion) {
+        return datos[posicion];
+    }
+
+    public void set(int posicion, int valor) {
+        datos[posicion] = valor;
+    }
+
+    public int getUltimo() {
+        return datos[tamano - 1];
+    }
+
+    public int quitarUltimo() {
+        return datos[--tamano];
+    }
+
+    public int tamano() { return tamano; }
+
+    public boolean estaVacia() { return tamano == 0; }
+
+    /**
+     * Vacía la lista conservando la capacidad ya reservada
+     */
+    public void limpiar() {
+        tamano = 0;
+    }
+
+    /**
+     * Invierte el orden de los elementos en el lugar
+     */
+    public void invertir() {
+        for (int i = 0, j = tamano - 1; i < j; i++, j--) {
+            int temporal = datos[i];
+            datos[i] = datos[j];
+            datos[j] = temporal;
+        }
+    }
+
+    /**
+     * Nueva lista con los mismos elementos
+     */
+    public ListaEnteros copiar() {
+        ListaEnteros copia = new ListaEnteros(tamano);
+        copia.agregarTodos(this);
+        return copia;
+    }
+
+    /**
+     * Copia exacta de los elementos (sin la capacidad sobrante)
+     */
+    public int[] aArreglo() {
+        return Arrays.copyOf(datos, tamano);
+    }
+}
@@ -0,0 +1,70 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Marcas booleanas por celda que se reinician en O(1).
+ * Cada celda guarda la época en la que se marcó; una celda está marcada solo
+ * si su época coincide con la actual, así que reiniciar es incrementar un
+ * contador en lugar de recorrer toda la grilla. El arreglo se crea con la
+ * primera marca.
+ */
+public class MarcasEpoca {
+    private final int tamano;
+    private int[] marcas;
+    private int epoca = 1;
+
+    public MarcasEpoca(int tamano) {
+        this.tamano = tamano;
+    }
+
+    public boolean get(int indice) {
+        return marcas != null && marcas[indice] == epoca;
+    }
+
+    /**
+     * Marca una celda (equivale a set(indice, true) sin evaluar el valor)
+     */
+    public void marcar(int indice) {
+        if (marcas == null) marcas = new int[tamano];
+        marcas[indice] = epoca;
+    }
+
+    public void set(int indice, boolean valor) {
+        if (marcas == null) {
+            if (!valor) return;
+            marcas = new int[tamano];
+        }
+        marcas[indice] = valor ? epoca : 0;
+    }
+
+    /**
+     * Desmarca todas las celdas
+     */
+    public void reiniciar() {
+        if (marcas == null) return;
+
+        epoca++;
+        // Al desbordar el contador se limpia el arreglo una sola vez
+        if (epoca == Integer.MAX_VALUE) {
+            Arrays.fill(marcas, 0);
+            epoca = 1;
+        }
+    }
+
+    /**
+     * Copia las marcas de otras del mismo tamaño (el arreglo y la época)
+     */
+    public void copiarDe(MarcasEpoca otras) {
+        epoca = otras.epoca;
+        if (otras.marcas == null) {
+            marcas = null;
+        } else if (marcas == null) {
+            marcas = otras.marcas.clone();
+        } else {
+            System.arraycopy(otras.marcas, 0, marcas, 0, tamano);
+        }
+    }
+
+    public int getTamano() { return tamano; }
+}
@@ -0,0 +1,132 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Montículo binario de mínimos sobre índices de celda con prioridad long.
+ * Guarda la posición de cada índice dentro del montículo, así que permite
+ * disminuir la prioridad de un elemento ya insertado en O(log n) sin crear
+ * nodos ni objetos envoltorio: todo vive en tres arreglos primitivos.
+ */
+public class MonticuloIndexado {
+    private static final int AUSENTE = -1;
+
+    private final int[] posiciones;
+    private int[] elementos;
+    private long[] prioridades;
+    private int tamano;
+
+    /**
+     * @param capacidad cantidad de índices posibles (0 .. capacidad-1)
+     */
+    public MonticuloIndexado(int capacidad) {
+        this.posiciones = new int[capacidad];
+        Arrays.fill(posiciones, AUSENTE);
+        this.elementos = new int[Math.min(capacidad, 1024)];
+        this.prioridades = new long[elementos.length];
+    }
+
+    public boolean contiene(int indice) {
+        return posiciones[indice] != AUSENTE;
+    }
+
+    /**
+     * Inserta el índice o, si ya estaba, le asigna la nueva prioridad cuando
+     * es menor que la actual
+     */
+    public void insertarODisminuir(int indice, long prioridad) {
+        int posicion = posiciones[indice];
+        if (posicion == AUSENTE) {
+            if (tamano == elementos.length) {
+                int capacidad = Math.max(1, elementos.length * 2);
+                elementos = Arrays.copyOf(elementos, capacidad);
+                prioridades = Arrays.copyOf(prioridades, capacidad);
+            }
+            elementos[tamano] = indice;
+            prioridades[tamano] = prioridad;
+            posiciones[indice] = tamano;
+            subir(tamano++);
+        } else if (prioridad < prioridades[posicion]) {
+            prioridades[posicion] = prioridad;
+            subir(posicion);
+        }
+    }
+
+    public long getPrioridadMinima() {
+        return prioridades[0];
+    }
+
+    /**
+     * Quita y devuelve el índice con menor prioridad
+     */
+    public int sacarMinimo() {
+        int minimo = elementos[0];
+        posiciones[minimo] = AUSENTE;
+        tamano--;
+        if (tamano > 0) {
+            elementos[0] = elementos[tamano];
+            prioridades[0] = prioridades[tamano];
+            posiciones[elementos[0]] = 0;
+            bajar(0);
+        }
+        return minimo;
+    }
+
+    public boolean estaVacio() { return tamano == 0; }
+
+    public int tamano() { return tamano; }
+
+    /**
+     * Vacía el montículo en O(tamaño), sin recorrer toda la tabla de posiciones
+     */
+    public void limpiar() {
+        for (int i = 0; i < tamano; i++) {
+            posiciones[elementos[i]] = AUSENTE;
+        }
+        tamano = 0;
+    }
+
+    private void subir(int posicion) {
+        int elemento = elementos[posicion];
+        long prioridad = prioridades[posicion];
+
+        while (posicion > 0) {
+            int padre = (posicion - 1) >>> 1;
+            if (prioridades[padre] <= prioridad) break;
+            mover(padre, posicion);
+            posicion = padre;
+        }
+
+        colocar(elemento, prioridad, posicion);
+    }
+
+    private void bajar(int posicion) {
+        int elemento = elementos[posicion];
+        long prioridad = prioridades[posicion];
+        int mitad = tamano >>> 1;
+
+        while (posicion < mitad) {
+            int hijo = 2 * posicion + 1;
+            if (hijo + 1 < tamano && prioridades[hijo + 1] < prioridades[hijo]) {
+                hijo++;
+            }
+            if (prioridad <= prioridades[hijo]) break;
+            mover(hijo, posicion);
+            posicion = hijo;
+        }
+
+        colocar(elemento, prioridad, posicion);
+    }
+
+    private void mover(int desde, int hacia) {
+        elementos[hacia] = elementos[desde];
+        prioridades[hacia] = prioridades[desde];
+        posiciones[elementos[hacia]] = hacia;
+    }
+
+    private void colocar(int elemento, long prioridad, int posicion) {
+        elementos[posicion] = elemento;
+        prioridades[posicion] = prioridad;
+        posiciones[elemento] = posicion;
+    }
+}
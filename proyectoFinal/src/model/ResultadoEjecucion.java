@@ -8,13 +8,32 @@ import java.util.ArrayList;
  * Incluye métricas de Programación Dinámica
  */
 public class ResultadoEjecucion {
+    /**
+     * Cómo terminó la ejecución: completa, o cortada por ControlEjecucion
+     * (en ese caso el resultado es parcial; puede traer el mejor camino
+     * hallado hasta el corte, como RecursivoBacktracking)
+     */
+    public enum Estado {
+        COMPLETO,
+        CANCELADO,
+        TIEMPO_AGOTADO,
+        PRESUPUESTO_AGOTADO
+    }
+    
     private String nombreAlgoritmo;
     private long tiempoEjecucion; // En milisegundos
     private long tiempoEjecucionNs; // En nanosegundos
+    private long tiempoCpuNs; // CPU del hilo que resolvió (0 si no se midió)
     private int celdasVisitadas;
     private List<Celda> camino;
     private boolean encontroSolucion;
     private List<Celda> ordenVisitas;
+    private int nodosExpandidos; // Celdas sacadas de la frontera (0 si el algoritmo no lo mide)
+    private int expansionesDesdeInicio; // Solo en búsquedas bidireccionales
+    private int expansionesDesdeFin;
+    private Estado estado;
+    private String motorGanador; // Solo en el portafolio: algoritmo que respondió primero
+    private boolean desdeCache; // Copia de una ejecución anterior (CacheResultados)
     
     // Campos para Programación Dinámica
     private boolean usoProgramacionDinamica;
@@ -30,6 +49,7 @@ public class ResultadoEjecucion {
         this.cachesUtilizados = 0;
         this.tamanoCache = 0;
         this.ordenVisitas = new ArrayList<>();
+        this.estado = Estado.COMPLETO;
     }
     
     // Getters y Setters existentes
@@ -55,6 +75,19 @@ public class ResultadoEjecucion {
         this.tiempoEjecucion = tiempoEjecucionNs / 1_000_000;
     }
     
+    /**
+     * Tiempo de CPU del hilo que resolvió. En una comparación paralela no
+     * incluye las esperas por los otros algoritmos, a diferencia del tiempo
+     * de reloj.
+     */
+    public long getTiempoCpuNs() {
+        return tiempoCpuNs;
+    }
+    
+    public void setTiempoCpuNs(long tiempoCpuNs) {
+        this.tiempoCpuNs = tiempoCpuNs;
+    }
+    
     public int getCeldasVisitadas() { 
         return celdasVisitadas; 
     }
@@ -71,6 +104,102 @@ public class ResultadoEjecucion {
         this.camino = camino; 
     }
     
+    /**
+     * Guarda el camino a partir de los índices de sus celdas, comprimido
+     * como direcciones de 2 bits por paso (CaminoCompacto). Si dos celdas
+     * seguidas no son vecinas se guardan los índices tal cual (VistaCeldas).
+     */
+    public void setCamino(Laberinto laberinto, ListaEnteros indices) {
+        CaminoCompacto compacto = CaminoCompacto.comprimir(laberinto, indices);
+        this.camino = compacto != null ? compacto : new VistaCeldas(laberinto, indices);
+    }
+    
+    public int getNodosExpandidos() {
+        return nodosExpandidos;
+    }
+    
+    public void setNodosExpandidos(int nodosExpandidos) {
+        this.nodosExpandidos = nodosExpandidos;
+    }
+    
+    public void setExpansionesPorLado(int desdeInicio, int desdeFin) {
+        this.expansionesDesdeInicio = desdeInicio;
+        this.expansionesDesdeFin = desdeFin;
+    }
+    
+    public int getExpansionesDesdeInicio() {
+        return expansionesDesdeInicio;
+    }
+    
+    public int getExpansionesDesdeFin() {
+        return expansionesDesdeFin;
+    }
+    
+    public boolean isBidireccional() {
+        return expansionesDesdeInicio > 0 || expansionesDesdeFin > 0;
+    }
+    
+    /**
+     * En un resultado del portafolio, el nombre del algoritmo que respondió
+     * primero; null en los demás algoritmos
+     */
+    public String getMotorGanador() {
+        return motorGanador;
+    }
+    
+    public void setMotorGanador(String motorGanador) {
+        this.motorGanador = motorGanador;
+    }
+    
+    /**
+     * true si el resultado salió de la caché: los tiempos son los de la
+     * ejecución original, no una medición nueva
+     */
+    public boolean isDesdeCache() {
+        return desdeCache;
+    }
+    
+    public void setDesdeCache(boolean desdeCache) {
+        this.desdeCache = desdeCache;
+    }
+    
+    public Estado getEstado() {
+        return estado;
+    }
+    
+    public void setEstado(Estado estado) {
+        this.estado = estado;
+    }
+    
+    /**
+     * true si la ejecución se cortó antes de terminar (resultado parcial)
+     */
+    public boolean isInterrumpido() {
+        return estado != Estado.COMPLETO;
+    }
+    
+    public boolean isCancelado() {
+        return estado == Estado.CANCELADO;
+    }
+    
+    public boolean isTiempoAgotado() {
+        return estado == Estado.TIEMPO_AGOTADO;
+    }
+    
+    /**
+     * Texto para mostrar por qué se cortó la ejecución
+     */
+    public String describirInterrupcion() {
+        switch (estado) {
+            case CANCELADO:
+                return "Ejecución cancelada (resultado parcial)";
+            case TIEMPO_AGOTADO:
+                return "Tiempo límite agotado (resultado parcial)";
+            default:
+                return "Presupuesto de nodos agotado (resultado parcial)";
+        }
+    }
+    
     public boolean isEncontroSolucion() { 
         return encontroSolucion; 
     }
@@ -123,9 +252,28 @@ public class ResultadoEjecucion {
         sb.append("algoritmo='").append(nombreAlgoritmo).append('\'');
         sb.append(", tiempoMs=").append(tiempoEjecucion);
         sb.append(", tiempoNs=").append(tiempoEjecucionNs);
+        if (tiempoCpuNs > 0) {
+            sb.append(", tiempoCpuNs=").append(tiempoCpuNs);
+        }
         sb.append(", celdasVisitadas=").append(celdasVisitadas);
+        if (nodosExpandidos > 0) {
+            sb.append(", nodosExpandidos=").append(nodosExpandidos);
+        }
+        if (isBidireccional()) {
+            sb.append(", expansionesInicio=").append(expansionesDesdeInicio);
+            sb.append(", expansionesFin=").append(expansionesDesdeFin);
+        }
+        if (motorGanador != null) {
+            sb.append(", motorGanador='").append(motorGanador).append('\'');
+        }
         sb.append(", longitudCamino=").append(getLongitudCamino());
         sb.append(", encontroSolucion=").append(encontroSolucion);
+        if (isInterrumpido()) {
+            sb.append(", estado=").append(estado);
+        }
+        if (desdeCache) {
+            sb.append(", desdeCache=true");
+        }
         if (usoProgramacionDinamica) {
             sb.append(", usoPD=true");
             sb.append(", cachesUsados=").append(cachesUtilizados);
@@ -0,0 +1,36 @@
+package model;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Lista de solo lectura que presenta índices de celdas como objetos Celda.
+ * Cada Celda se crea al pedirla, así un resultado con millones de visitas no
+ * guarda millones de objetos.
+ */
+public class VistaCeldas extends AbstractList<Celda> implements RandomAccess {
+    private final Laberinto laberinto;
+    private final ListaEnteros indices;
+
+    public VistaCeldas(Laberinto laberinto, ListaEnteros indices) {
+        this.laberinto = laberinto;
+        this.indices = indices;
+    }
+
+    @Override
+    public Celda get(int posicion) {
+        if (posicion < 0 || posicion >= indices.tamano()) {
+            throw new IndexOutOfBoundsException("Posición: " + posicion + ", tamaño: " + indices.tamano());
+        }
+        return laberinto.getCelda(indices.get(posicion));
+    }
+
+    @Override
+    public int size() {
+        return indices.tamano();
+    }
+
+    public ListaEnteros getIndices() {
+        return indices;
+    }
+}
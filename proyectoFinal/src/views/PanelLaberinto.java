@@ -6,7 +6,6 @@ import java.awt.event.*;
 import javax.swing.*;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Panel mejorado para dibujar el laberinto con estilo Minecraft y animaciones
@@ -23,12 +22,16 @@ public class PanelLaberinto extends JPanel {
     private int offsetX = 0;
     private int offsetY = 0;
     
-    // Estados de animación
-    private List<Celda> celdasAnimadasVisitadas = new CopyOnWriteArrayList<>();
-    private List<Celda> celdasAnimadasCamino = new CopyOnWriteArrayList<>();
+    // Estados de animación: un bit por celda, solo se tocan desde el hilo de Swing
+    private GrillaBits celdasAnimadasVisitadas;
+    private GrillaBits celdasAnimadasCamino;
+    private int cantidadAnimadasVisitadas;
+    private int cantidadAnimadasCamino;
     private Celda celdaActualAnimacion = null;
     private Timer timerAnimacion;
     private boolean animacionEnProgreso = false;
+    private Runnable alTerminarAnimacion;
+    private FlujoVisitas flujoActual;
     
     // NUEVO: Flag para mantener todo amarillo en Recursivo 4 direcciones
     private boolean mantenerTodoAmarillo = false;
@@ -50,6 +53,7 @@ public class PanelLaberinto extends JPanel {
     
     public PanelLaberinto(Laberinto laberinto) {
         this.laberinto = laberinto;
+        prepararGrillasAnimacion();
         
         // Configurar panel
         setBackground(new Color(135, 206, 235));
@@ -235,10 +239,10 @@ public class PanelLaberinto extends JPanel {
             if (celda.equals(celdaActualAnimacion)) {
                 return COLOR_EVALUANDO;
             }
-            if (celdasAnimadasCamino.contains(celda)) {
+            if (esAnimada(celdasAnimadasCamino, celda)) {
                 return COLOR_SOLUCION;
             }
-            if (celdasAnimadasVisitadas.contains(celda)) {
+            if (esAnimada(celdasAnimadasVisitadas, celda)) {
                 return COLOR_VISITADA;
             }
         } else if (!animacionEnProgreso && resultadoActual != null) {
@@ -253,6 +257,10 @@ public class PanelLaberinto extends JPanel {
                         }
                     }
                 }
+                // Animado desde un flujo: el resultado no trae la traza
+                if (esAnimada(celdasAnimadasCamino, celda)) {
+                    return COLOR_SOLUCION;
+                }
             } else {
                 // Comportamiento normal para otros algoritmos
                 boolean fueVisitada = false;
@@ -278,6 +286,12 @@ public class PanelLaberinto extends JPanel {
                     }
                 }
                 
+                // Animado desde un flujo: el resultado no trae la traza,
+                // quedan pintadas las celdas que se animaron
+                if (!fueVisitada && resultadoActual.getOrdenVisitas().isEmpty()) {
+                    fueVisitada = esAnimada(celdasAnimadasVisitadas, celda);
+                }
+                
                 if (estaEnCamino) {
                     return COLOR_SOLUCION;
                 }
@@ -290,6 +304,30 @@ public class PanelLaberinto extends JPanel {
         return celda.esPared() ? COLOR_PARED : COLOR_CAMINO;
     }
     
+    // La grilla puede ser de un laberinto anterior hasta la próxima limpieza
+    private boolean esAnimada(GrillaBits grilla, Celda celda) {
+        int indice = celda.getIndice();
+        return indice < grilla.getTamano() && grilla.get(indice);
+    }
+    
+    private void animarVisita(Celda celda) {
+        if (!celdasAnimadasVisitadas.get(celda.getIndice())) {
+            celdasAnimadasVisitadas.set(celda.getIndice(), true);
+            cantidadAnimadasVisitadas++;
+        }
+    }
+    
+    private void animarEnCamino(Celda celda) {
+        if (!celdasAnimadasCamino.get(celda.getIndice())) {
+            celdasAnimadasCamino.set(celda.getIndice(), true);
+            cantidadAnimadasCamino++;
+        }
+        if (celdasAnimadasVisitadas.get(celda.getIndice())) {
+            celdasAnimadasVisitadas.set(celda.getIndice(), false);
+            cantidadAnimadasVisitadas--;
+        }
+    }
+    
     private void dibujarCelda3D(Graphics2D g2, int x, int y, Color color, boolean hover, boolean destacar) {
         // Efecto de hover
         if (hover && !animacionEnProgreso) {
@@ -390,9 +428,21 @@ public class PanelLaberinto extends JPanel {
      * Detecta si es Recursivo 4 direcciones para el comportamiento especial
      */
     public void animarSolucion(ResultadoEjecucion resultado) {
-        if (resultado == null || animacionEnProgreso) return;
+        animarSolucion(resultado, null);
+    }
+    
+    /**
+     * Igual que animarSolucion, avisando cuando la animación termina o se
+     * detiene (en el hilo de Swing)
+     */
+    public void animarSolucion(ResultadoEjecucion resultado, Runnable alTerminar) {
+        if (resultado == null || animacionEnProgreso) {
+            if (alTerminar != null) alTerminar.run();
+            return;
+        }
         
         limpiarAnimacion();
+        this.alTerminarAnimacion = alTerminar;
         this.resultadoActual = resultado;
         animacionEnProgreso = true;
         
@@ -413,7 +463,7 @@ public class PanelLaberinto extends JPanel {
         timerAnimacion.addActionListener(e -> {
             if (indice[0] < visitasFinal.size()) {
                 Celda celda = visitasFinal.get(indice[0]);
-                celdasAnimadasVisitadas.add(celda);
+                animarVisita(celda);
                 celdaActualAnimacion = celda;
                 repaint();
                 indice[0]++;
@@ -432,15 +482,30 @@ public class PanelLaberinto extends JPanel {
                     animarCaminoFinal(caminoSinInicioFin);
                 } else {
                     finalizarAnimacion();
-                    JOptionPane.showMessageDialog(this, 
-                        "No se encontró solución", 
-                        "Sin solución", 
-                        JOptionPane.INFORMATION_MESSAGE);
+                    avisarSinSolucion(resultado);
                 }
             }
         });
         timerAnimacion.start();
     }
+    
+    /**
+     * Un resultado cortado por tiempo o presupuesto no prueba que no haya
+     * solución: se avisa el motivo
+     */
+    private void avisarSinSolucion(ResultadoEjecucion resultado) {
+        if (resultado.isInterrumpido()) {
+            JOptionPane.showMessageDialog(this, 
+                resultado.describirInterrupcion(), 
+                "Búsqueda interrumpida", 
+                JOptionPane.WARNING_MESSAGE);
+        } else {
+            JOptionPane.showMessageDialog(this, 
+                "No se encontró solución", 
+                "Sin solución", 
+                JOptionPane.INFORMATION_MESSAGE);
+        }
+    }
 
     /**
      * Anima el camino final y para Recursivo 4 direcciones pinta todo amarillo
@@ -458,42 +523,104 @@ public class PanelLaberinto extends JPanel {
             if (indice[0] < camino.size()) {
                 Celda celda = camino.get(indice[0]);
                 celdaActualAnimacion = celda;
-                celdasAnimadasCamino.add(celda);
-                celdasAnimadasVisitadas.remove(celda);
+                animarEnCamino(celda);
                 repaint();
                 indice[0]++;
             } else {
                 timerCamino.stop();
+                terminarCamino();
+            }
+        });
+        
+        timerCamino.start();
+    }
+    
+    /**
+     * Cierre de la animación del camino; para Recursivo 4 direcciones pinta
+     * todo de amarillo
+     */
+    private void terminarCamino() {
+        // MODIFICADO: Para Recursivo 4 direcciones, pintar todo de amarillo
+        if (resultadoActual != null && 
+            resultadoActual.getNombreAlgoritmo().equals("Recursivo 4 direcciones")) {
+            
+            // Pequeña pausa antes de pintar todo
+            Timer timerFinal = new Timer(500, ev -> {
+                // Mover todas las visitadas al camino
+                celdasAnimadasCamino.unir(celdasAnimadasVisitadas);
+                celdasAnimadasVisitadas.limpiar();
+                cantidadAnimadasCamino += cantidadAnimadasVisitadas;
+                cantidadAnimadasVisitadas = 0;
+                
+                // Establecer el flag para mantener todo amarillo
+                mantenerTodoAmarillo = true;
+                
+                repaint();
+                
+                // Finalizar después de un momento
+                Timer timerFin = new Timer(1000, evt -> finalizarAnimacion());
+                timerFin.setRepeats(false);
+                timerFin.start();
+            });
+            timerFinal.setRepeats(false);
+            timerFinal.start();
+        } else {
+            finalizarAnimacion();
+        }
+    }
+    
+    /**
+     * Anima una búsqueda mientras todavía corre: en cada paso del timer saca
+     * un evento del flujo (las visitas y después el camino, este a la mitad de
+     * velocidad como en animarSolucion). Si el algoritmo todavía no publicó
+     * nada se espera al paso siguiente; mientras el buffer está lleno es el
+     * algoritmo el que espera a la animación. Al terminar el flujo su
+     * resultado queda como resultado actual.
+     */
+    public void animarFlujo(FlujoVisitas flujo, Runnable alTerminar) {
+        if (animacionEnProgreso) {
+            flujo.cerrar();
+            if (alTerminar != null) alTerminar.run();
+            return;
+        }
+        
+        limpiarAnimacion();
+        this.alTerminarAnimacion = alTerminar;
+        this.resultadoActual = null;
+        this.flujoActual = flujo;
+        animacionEnProgreso = true;
+        mantenerTodoAmarillo = false;
+        
+        timerAnimacion = new Timer(velocidadAnimacion, null);
+        timerAnimacion.addActionListener(e -> {
+            int evento = flujo.tomar();
+            if (evento != FlujoVisitas.VACIO) {
+                Celda celda = laberinto.getCelda(FlujoVisitas.indiceDe(evento));
+                if (!FlujoVisitas.esCamino(evento)) {
+                    animarVisita(celda);
+                } else if (!celda.equals(laberinto.getInicio()) && !celda.equals(laberinto.getFin())) {
+                    timerAnimacion.setDelay(velocidadAnimacion * 2);
+                    animarEnCamino(celda);
+                }
+                celdaActualAnimacion = celda;
+                repaint();
+            } else if (flujo.isTerminado()) {
+                timerAnimacion.stop();
+                flujoActual = null;
+                celdaActualAnimacion = null;
+                resultadoActual = flujo.getResultado();
                 
-                // MODIFICADO: Para Recursivo 4 direcciones, pintar todo de amarillo
-                if (resultadoActual != null && 
-                    resultadoActual.getNombreAlgoritmo().equals("Recursivo 4 direcciones")) {
-                    
-                    // Pequeña pausa antes de pintar todo
-                    Timer timerFinal = new Timer(500, ev -> {
-                        // Mover todas las visitadas al camino
-                        celdasAnimadasCamino.addAll(celdasAnimadasVisitadas);
-                        celdasAnimadasVisitadas.clear();
-                        
-                        // Establecer el flag para mantener todo amarillo
-                        mantenerTodoAmarillo = true;
-                        
-                        repaint();
-                        
-                        // Finalizar después de un momento
-                        Timer timerFin = new Timer(1000, evt -> finalizarAnimacion());
-                        timerFin.setRepeats(false);
-                        timerFin.start();
-                    });
-                    timerFinal.setRepeats(false);
-                    timerFinal.start();
+                if (resultadoActual != null && resultadoActual.isEncontroSolucion()) {
+                    terminarCamino();
                 } else {
                     finalizarAnimacion();
+                    if (resultadoActual != null) {
+                        avisarSinSolucion(resultadoActual);
+                    }
                 }
             }
         });
-        
-        timerCamino.start();
+        timerAnimacion.start();
     }
     
     /**
@@ -506,29 +633,57 @@ public class PanelLaberinto extends JPanel {
         // El flag mantenerTodoAmarillo se mantiene si es Recursivo 4 direcciones
         
         repaint();
+        notificarFinAnimacion();
         
-        System.out.println("Animación finalizada. Celdas visitadas: " + celdasAnimadasVisitadas.size() + 
-                          ", Camino: " + celdasAnimadasCamino.size());
+        System.out.println("Animación finalizada. Celdas visitadas: " + cantidadAnimadasVisitadas + 
+                          ", Camino: " + cantidadAnimadasCamino);
     }
     
     public void detenerAnimacion() {
         if (timerAnimacion != null && timerAnimacion.isRunning()) {
             timerAnimacion.stop();
         }
+        // El algoritmo que publica en el flujo deja de esperar a la animación
+        if (flujoActual != null) {
+            flujoActual.cerrar();
+            flujoActual = null;
+        }
         animacionEnProgreso = false;
         celdaActualAnimacion = null;
         repaint();
+        notificarFinAnimacion();
+    }
+    
+    private void notificarFinAnimacion() {
+        Runnable aviso = alTerminarAnimacion;
+        alTerminarAnimacion = null;
+        if (aviso != null) aviso.run();
     }
     
     private void limpiarAnimacion() {
         detenerAnimacion();
-        celdasAnimadasVisitadas.clear();
-        celdasAnimadasCamino.clear();
+        prepararGrillasAnimacion();
         celdaActualAnimacion = null;
         // Limpiar el flag
         mantenerTodoAmarillo = false;
     }
     
+    /**
+     * Deja las grillas de animación vacías y del tamaño del laberinto actual
+     */
+    private void prepararGrillasAnimacion() {
+        int total = laberinto.getTotalCeldas();
+        if (celdasAnimadasVisitadas == null || celdasAnimadasVisitadas.getTamano() != total) {
+            celdasAnimadasVisitadas = new GrillaBits(total);
+            celdasAnimadasCamino = new GrillaBits(total);
+        } else {
+            celdasAnimadasVisitadas.limpiar();
+            celdasAnimadasCamino.limpiar();
+        }
+        cantidadAnimadasVisitadas = 0;
+        cantidadAnimadasCamino = 0;
+    }
+    
     public void setModoEdicion(ModoEdicion modo) {
         this.modoActual = modo;
         repaint();
@@ -563,14 +718,8 @@ public class PanelLaberinto extends JPanel {
         this.resultadoActual = null;
         mantenerTodoAmarillo = false;
         
-        // Limpiar estados del laberinto
-        for (int i = 0; i < laberinto.getFilas(); i++) {
-            for (int j = 0; j < laberinto.getColumnas(); j++) {
-                Celda celda = laberinto.getCelda(i, j);
-                celda.setVisitada(false);
-                celda.setEnCamino(false);
-            }
-        }
+        // Limpiar estados del laberinto (O(1) gracias a las marcas por época)
+        laberinto.reiniciarVisitadas();
         
         repaint();
     }
@@ -5,6 +5,7 @@ import javax.swing.*;
 import javax.swing.table.*;
 import java.awt.*;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Ventana para comparar resultados de todos los algoritmos
@@ -12,6 +13,15 @@ import java.util.List;
 public class VentanaComparacion extends JDialog {
     
     public VentanaComparacion(Frame parent, List<ResultadoEjecucion> resultados) {
+        this(parent, resultados, null);
+    }
+    
+    /**
+     * @param alAnimar si no es null se agrega un botón para animar el
+     *                 algoritmo seleccionado; recibe su resultado al cerrar
+     */
+    public VentanaComparacion(Frame parent, List<ResultadoEjecucion> resultados,
+                              Consumer<ResultadoEjecucion> alAnimar) {
         super(parent, "Comparación de Algoritmos", true);
         
         setLayout(new BorderLayout());
@@ -26,18 +36,31 @@ public class VentanaComparacion extends JDialog {
         panelTitulo.add(titulo);
         add(panelTitulo, BorderLayout.NORTH);
         
-        // Crear tabla con resultados
-        String[] columnas = {"Algoritmo", "Tiempo (ms)", "Celdas Visitadas", 
-                           "Longitud Camino", "Encontró Solución"};
-        Object[][] datos = new Object[resultados.size()][5];
+        // Crear tabla con resultados; la columna de CPU solo si se midió
+        // (comparación paralela, donde el tiempo de reloj incluye esperas)
+        boolean conCpu = false;
+        for (ResultadoEjecucion r : resultados) {
+            if (r.getTiempoCpuNs() > 0) conCpu = true;
+        }
+        String[] columnas = conCpu
+            ? new String[] {"Algoritmo", "Tiempo (ms)", "CPU (ms)", "Celdas Visitadas",
+                            "Nodos Expandidos", "Longitud Camino", "Encontró Solución"}
+            : new String[] {"Algoritmo", "Tiempo (ms)", "Celdas Visitadas",
+                            "Nodos Expandidos", "Longitud Camino", "Encontró Solución"};
+        Object[][] datos = new Object[resultados.size()][columnas.length];
         
         for (int i = 0; i < resultados.size(); i++) {
             ResultadoEjecucion r = resultados.get(i);
-            datos[i][0] = r.getNombreAlgoritmo();
-            datos[i][1] = r.getTiempoEjecucion();
-            datos[i][2] = r.getCeldasVisitadas();
-            datos[i][3] = r.isEncontroSolucion() ? r.getLongitudCamino() : "N/A";
-            datos[i][4] = r.isEncontroSolucion() ? "Sí" : "No";
+            int c = 0;
+            datos[i][c++] = r.getMotorGanador() != null
+                ? r.getNombreAlgoritmo() + " (ganó " + r.getMotorGanador() + ")"
+                : r.getNombreAlgoritmo();
+            datos[i][c++] = r.getTiempoEjecucion();
+            if (conCpu) datos[i][c++] = String.format("%.2f", r.getTiempoCpuNs() / 1_000_000.0);
+            datos[i][c++] = r.getCeldasVisitadas();
+            datos[i][c++] = formatearExpansiones(r);
+            datos[i][c++] = r.isEncontroSolucion() ? r.getLongitudCamino() : "N/A";
+            datos[i][c] = r.isEncontroSolucion() ? "Sí" : "No";
         }
         
         JTable tabla = new JTable(datos, columnas);
@@ -58,16 +81,41 @@ public class VentanaComparacion extends JDialog {
         scroll.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
         add(scroll, BorderLayout.CENTER);
         
-        // Panel inferior con botón cerrar
+        // Panel inferior con botón cerrar (y animar, si se pidió)
         JPanel panelBoton = new JPanel();
         panelBoton.setBackground(new Color(240, 240, 240));
+        if (alAnimar != null) {
+            JButton btnAnimar = new JButton("Animar seleccionado");
+            btnAnimar.setFont(new Font("Arial", Font.BOLD, 14));
+            btnAnimar.setEnabled(false);
+            tabla.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+            tabla.getSelectionModel().addListSelectionListener(
+                e -> btnAnimar.setEnabled(tabla.getSelectedRow() >= 0));
+            btnAnimar.addActionListener(e -> {
+                ResultadoEjecucion elegido = resultados.get(tabla.getSelectedRow());
+                dispose();
+                alAnimar.accept(elegido);
+            });
+            panelBoton.add(btnAnimar);
+        }
         JButton btnCerrar = new JButton("Cerrar");
         btnCerrar.setFont(new Font("Arial", Font.BOLD, 14));
         btnCerrar.addActionListener(e -> dispose());
         panelBoton.add(btnCerrar);
         add(panelBoton, BorderLayout.SOUTH);
         
-        setSize(700, 400);
+        setSize(900, 400);
         setLocationRelativeTo(parent);
     }
+    
+    /**
+     * Total de nodos expandidos; en las búsquedas bidireccionales se detalla
+     * cuántos aportó cada lado
+     */
+    private static Object formatearExpansiones(ResultadoEjecucion r) {
+        if (r.getNodosExpandidos() == 0) return "-";
+        if (!r.isBidireccional()) return r.getNodosExpandidos();
+        return r.getNodosExpandidos() + " (A: " + r.getExpansionesDesdeInicio()
+            + " / B: " + r.getExpansionesDesdeFin() + ")";
+    }
 }
\ No newline at end of file
@@ -3,12 +3,16 @@ package views;
 import controllers.*;
 import model.*;
 import data.GuardadorDatos;
+import data.PredictorRendimiento;
+import data.PredictorRendimiento.Prediccion;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
 import javax.imageio.ImageIO;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Ventana principal del juego con estilo Minecraft mejorada
@@ -17,6 +21,8 @@ public class VentanaGameplay extends JFrame {
     private Laberinto laberinto;
     private PanelLaberinto panelLaberinto;
     private GuardadorDatos guardador;
+    private PredictorRendimiento predictor;
+    private CacheResultados cache;
     
     // Componentes de la interfaz
     private JLabel lblTiempo;
@@ -28,6 +34,20 @@ public class VentanaGameplay extends JFrame {
     private JButton btnDetener;
     private JSpinner spinnerVelocidad;
     
+    // Ejecución en curso (para poder cancelarla) y tiempo máximo por búsqueda
+    private static final long TIEMPO_LIMITE_MS = 30_000;
+    private static final String ALGORITMO_AUTO = "Auto (según historial)";
+    private static final int INTERVALO_PROGRESO_MS = 200;
+    // Memoria de la caché de resultados; se cambia con -Dlaberinto.cache.mb=N
+    private static final long MEMORIA_CACHE_MB = 64;
+    private ControlEjecucion controlActual;
+    private SwingWorker<?, ?> trabajoActual;
+    
+    // Búsqueda que corre en segundo plano; la lee el Timer de progreso
+    private volatile ControlEjecucion controlEnCurso;
+    private volatile String etiquetaEnCurso;
+    private volatile long inicioEnCursoNs;
+    
     // Colores Minecraft
     private final Color COLOR_FONDO;
     private final Color COLOR_BOTON;
@@ -48,6 +68,8 @@ public class VentanaGameplay extends JFrame {
         this.laberinto = new Laberinto(filas, columnas);
         this.panelLaberinto = new PanelLaberinto(laberinto);
         this.guardador = new GuardadorDatos();
+        this.predictor = new PredictorRendimiento(guardador);
+        this.cache = new CacheResultados(Long.getLong("laberinto.cache.mb", MEMORIA_CACHE_MB) << 20);
         
         configurarVentana();
         inicializarComponentes();
@@ -124,11 +146,17 @@ public class VentanaGameplay extends JFrame {
         itemComparar.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_C, ActionEvent.CTRL_MASK));
         itemComparar.addActionListener(e -> compararTodos());
         
+        JMenuItem itemCompararRapido = new JMenuItem("Comparación Rápida (paralela)");
+        itemCompararRapido.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_C,
+            ActionEvent.CTRL_MASK | ActionEvent.SHIFT_MASK));
+        itemCompararRapido.addActionListener(e -> compararRapido());
+        
         JMenuItem itemDetener = new JMenuItem("Detener Ejecución");
-        itemDetener.addActionListener(e -> panelLaberinto.detenerAnimacion());
+        itemDetener.addActionListener(e -> detenerEjecucion());
         
         menuAlgoritmos.add(itemEjecutar);
         menuAlgoritmos.add(itemComparar);
+        menuAlgoritmos.add(itemCompararRapido);
         menuAlgoritmos.addSeparator();
         menuAlgoritmos.add(itemDetener);
         
@@ -263,13 +291,9 @@ public class VentanaGameplay extends JFrame {
         
         // Sección Algoritmos
         agregarSeccion(panel, "ALGORITMO");
-        comboAlgoritmos = new JComboBox<>(new String[]{
-            "BFS (Breadth-First Search)",
-            "DFS (Depth-First Search)",
-            "Recursivo 2 direcciones",
-            "Recursivo 4 direcciones",
-            "Recursivo 4 direcciones con backtracking"
-        });
+        comboAlgoritmos = new JComboBox<>(RegistroAlgoritmos.getInstancia().getNombres());
+        comboAlgoritmos.insertItemAt(ALGORITMO_AUTO, 0);
+        comboAlgoritmos.setSelectedIndex(1);
         comboAlgoritmos.setMaximumSize(new Dimension(200, 30));
         comboAlgoritmos.setFont(new Font("Arial", Font.PLAIN, 12));
         panel.add(comboAlgoritmos);
@@ -293,7 +317,7 @@ public class VentanaGameplay extends JFrame {
         panel.add(btnResolver);
         panel.add(Box.createVerticalStrut(10));
         
-        btnDetener = crearBoton("DETENER", e -> panelLaberinto.detenerAnimacion());
+        btnDetener = crearBoton("DETENER", e -> detenerEjecucion());
         btnDetener.setBackground(new Color(200, 0, 0));
         btnDetener.setEnabled(false);
         panel.add(btnDetener);
@@ -302,6 +326,11 @@ public class VentanaGameplay extends JFrame {
         JButton btnComparar = crearBoton("Comparar Todos", e -> compararTodos());
         btnComparar.setBackground(new Color(255, 140, 0));
         panel.add(btnComparar);
+        panel.add(Box.createVerticalStrut(10));
+        
+        JButton btnCompararRapido = crearBoton("Comparación Rápida", e -> compararRapido());
+        btnCompararRapido.setBackground(new Color(255, 170, 60));
+        panel.add(btnCompararRapido);
         panel.add(Box.createVerticalStrut(15));
         
         JButton btnEstadisticas = crearBoton("Ver Estadísticas", e -> mostrarEstadisticas());
@@ -693,8 +722,30 @@ public class VentanaGameplay extends JFrame {
             return;
         }
         
-        String algoritmoSeleccionado = (String) comboAlgoritmos.getSelectedItem();
-        final ResultadoEjecucion[] resultado = new ResultadoEjecucion[1];
+        if (hayTrabajoEnCurso()) return;
+        
+        // Auto: el algoritmo óptimo con menor tiempo previsto según el historial
+        String seleccion = (String) comboAlgoritmos.getSelectedItem();
+        final CaracteristicasLaberinto caracteristicas = CaracteristicasLaberinto.calcular(laberinto);
+        final Prediccion prediccion = ALGORITMO_AUTO.equals(seleccion)
+            ? elegirAutomatico(caracteristicas) : null;
+        final DescripcionAlgoritmo descripcion = RegistroAlgoritmos.getInstancia().buscar(
+            prediccion != null ? prediccion.getAlgoritmo() : seleccion);
+        
+        // Mismo contenido y algoritmo que una ejecución anterior: no se recalcula
+        final ResultadoEjecucion enCache = cache.buscar(descripcion.getNombre(), laberinto);
+        
+        // Avisar si el laberinto supera el tamaño recomendado para el algoritmo
+        if (enCache == null && !descripcion.isRecomendadoPara(laberinto)) {
+            int opcion = JOptionPane.showConfirmDialog(this,
+                String.format("%s no se recomienda para laberintos de más de %,d celdas.\n" +
+                    "Se detendrá a los %d segundos si no termina. ¿Continuar?",
+                    descripcion.getNombre(), descripcion.getMaximoCeldas(), TIEMPO_LIMITE_MS / 1000),
+                "Laberinto grande",
+                JOptionPane.YES_NO_OPTION,
+                JOptionPane.WARNING_MESSAGE);
+            if (opcion != JOptionPane.YES_OPTION) return;
+        }
         
         // Cambiar estado de botones
         btnResolver.setEnabled(false);
@@ -708,93 +759,221 @@ public class VentanaGameplay extends JFrame {
         // Limpiar resultado anterior
         panelLaberinto.limpiarResultado();
         
-        // Crear copia del laberinto para no modificar el original durante el algoritmo
-        Laberinto copiaLaberinto = laberinto.clonar();
-        
-        // Ejecutar el algoritmo seleccionado
-        try {
-            if (algoritmoSeleccionado.contains("BFS")) {
-                BFS bfs = new BFS(copiaLaberinto);
-                resultado[0] = bfs.resolver();
-            } else if (algoritmoSeleccionado.contains("DFS")) {
-                DFS dfs = new DFS(copiaLaberinto);
-                resultado[0] = dfs.resolver();
-            } else if (algoritmoSeleccionado.equals("Recursivo 2 direcciones")) {
-                RecursivoDosDirecciones r2d = new RecursivoDosDirecciones(copiaLaberinto);
-                resultado[0] = r2d.resolver();
-            } else if (algoritmoSeleccionado.equals("Recursivo 4 direcciones")) {
-                RecursivoCuatroDirecciones r4d = new RecursivoCuatroDirecciones(copiaLaberinto);
-                resultado[0] = r4d.resolver();
-            } else if (algoritmoSeleccionado.contains("backtracking")) {
-                RecursivoBacktracking rb = new RecursivoBacktracking(copiaLaberinto);
-                resultado[0] = rb.resolver();
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(this,
-                "Error al ejecutar el algoritmo: " + e.getMessage(),
-                "Error",
-                JOptionPane.ERROR_MESSAGE);
-            btnResolver.setEnabled(true);
-            btnDetener.setEnabled(false);
-            lblEstado.setText("Error");
+        if (enCache != null) {
+            mostrarResultado(enCache, caracteristicas, prediccion, false);
             return;
         }
         
-        if (resultado[0] != null) {
-            // Actualizar estadísticas inmediatamente
-            actualizarEstadisticas(resultado[0]);
-            
-            // IMPORTANTE: Copiar el estado de visitadas y camino al laberinto original
-            copiarEstadoAlLaberintoOriginal(copiaLaberinto);
-            
-            // Animar la solución con el laberinto que tiene los estados correctos
-            panelLaberinto.animarSolucion(resultado[0]);
-            
-            // Guardar en CSV si encontró solución
-            if (resultado[0].isEncontroSolucion()) {
-                guardador.guardarResultado(resultado[0], laberinto.getFilas(), laberinto.getColumnas());
-                lblEstado.setText("Solución encontrada");
-            } else {
-                lblEstado.setText("Sin solución");
+        // Control de la ejecución: DETENER lo cancela y el tiempo límite evita
+        // que un algoritmo exponencial en un laberinto grande no termine nunca
+        controlActual = new ControlEjecucion();
+        controlActual.setTiempoLimiteMs(TIEMPO_LIMITE_MS);
+        final ControlEjecucion control = controlActual;
+        
+        // El algoritmo corre fuera del hilo de Swing sobre una copia, así
+        // editar o generar el laberinto mientras tanto no altera la búsqueda
+        final Laberinto original = laberinto;
+        final Laberinto copia = laberinto.clonar();
+        registrarEnCurso(prediccion != null ? "Auto - " + descripcion.getNombre() + ":" : "Resolviendo...", control);
+        final Timer timerProgreso = iniciarProgreso();
+        
+        // Las visitas se animan a medida que el algoritmo las publica. Los
+        // paralelos no publican en un flujo (un solo productor): se animan al terminar
+        final FlujoVisitas flujo = descripcion.isParalelo() ? null : new FlujoVisitas();
+        if (flujo != null) {
+            control.setFlujo(flujo);
+            panelLaberinto.animarFlujo(flujo, this::restaurarBotones);
+        }
+        
+        SwingWorker<ResultadoEjecucion, Void> trabajador = new SwingWorker<ResultadoEjecucion, Void>() {
+            @Override
+            protected ResultadoEjecucion doInBackground() {
+                ResultadoEjecucion resultado = null;
+                try {
+                    resultado = descripcion.crear(copia).resolver(control);
+                    // Lo que esperó a la animación no es tiempo del algoritmo
+                    if (flujo != null) {
+                        resultado.setTiempoEjecucionNs(resultado.getTiempoEjecucionNs() - flujo.getEsperaNs());
+                    }
+                    return resultado;
+                } finally {
+                    if (flujo != null) flujo.terminar(resultado);
+                }
             }
             
-            // Restaurar botones después de un tiempo prudente
-            int tiempoEspera = resultado[0].getCeldasVisitadas() * velocidad / 2 + 
-                              resultado[0].getLongitudCamino() * velocidad * 2 + 1000;
-            tiempoEspera = Math.min(tiempoEspera, 10000); // Máximo 10 segundos
-            
-            Timer timer = new Timer(tiempoEspera, e -> {
-                btnResolver.setEnabled(true);
-                btnDetener.setEnabled(false);
-                if (resultado[0].isEncontroSolucion()) {
-                    lblEstado.setText("Listo - Solución mostrada");
+            @Override
+            protected void done() {
+                timerProgreso.stop();
+                try {
+                    ResultadoEjecucion resultado = get();
+                    // La clave es el contenido de la copia: sirve aunque el laberinto haya cambiado
+                    cache.guardar(descripcion.getNombre(), copia, resultado);
+                    if (!sigueIgual(original, copia)) {
+                        descartarResultado();
+                        return;
+                    }
+                    mostrarResultado(resultado, caracteristicas, prediccion, flujo != null);
+                } catch (InterruptedException | ExecutionException e) {
+                    Throwable causa = e.getCause() != null ? e.getCause() : e;
+                    causa.printStackTrace();
+                    JOptionPane.showMessageDialog(VentanaGameplay.this,
+                        "Error al ejecutar el algoritmo: " + causa.getMessage(),
+                        "Error",
+                        JOptionPane.ERROR_MESSAGE);
+                    restaurarBotones();
+                    lblEstado.setText("Error");
                 }
-            });
-            timer.setRepeats(false);
-            timer.start();
+            }
+        };
+        trabajoActual = trabajador;
+        trabajador.execute();
+    }
+    
+    /**
+     * Muestra un resultado ya calculado (en el hilo de Swing): estadísticas,
+     * animación y registro en el CSV. Un resultado de la caché no se vuelve a
+     * registrar. Los botones vuelven cuando termina la animación.
+     * @param prediccion la elección automática que lo produjo, o null
+     * @param yaAnimado true si se animó desde un FlujoVisitas mientras corría
+     */
+    private void mostrarResultado(ResultadoEjecucion resultado, CaracteristicasLaberinto caracteristicas,
+                                  Prediccion prediccion, boolean yaAnimado) {
+        // Actualizar estadísticas inmediatamente
+        actualizarEstadisticas(resultado);
+        
+        // Guardar en CSV si encontró solución (un resultado parcial no es comparable)
+        if (resultado.isInterrumpido()) {
+            lblEstado.setText(resultado.describirInterrupcion());
+        } else if (resultado.isDesdeCache()) {
+            // Sus tiempos son los de la ejecución original, no una medición nueva
+            String texto = (resultado.isEncontroSolucion() ? "Solución" : "Sin solución") + " desde la " + cache;
+            lblEstado.setText(prediccion != null ? "Auto: " + prediccion.getAlgoritmo() + " - " + texto : texto);
+        } else if (resultado.isEncontroSolucion()) {
+            guardador.guardarResultado(resultado, caracteristicas);
+            if (prediccion != null) {
+                predictor.registrar(prediccion, caracteristicas, resultado);
+                lblEstado.setText(describirPrediccion(prediccion, resultado));
+            } else {
+                lblEstado.setText(resultado.getMotorGanador() != null
+                    ? "Solución encontrada por " + resultado.getMotorGanador()
+                    : "Solución encontrada");
+            }
         } else {
-            // Si no hay resultado, restaurar botones
-            btnResolver.setEnabled(true);
-            btnDetener.setEnabled(false);
-            lblEstado.setText("Error al resolver");
+            lblEstado.setText("Sin solución");
+        }
+        
+        // Si el usuario la canceló no hace falta animar lo recorrido
+        if (resultado.isCancelado()) {
+            restaurarBotones();
+            return;
         }
+        if (yaAnimado) return;
+        
+        // Animar la solución a partir del orden de visitas del resultado
+        panelLaberinto.animarSolucion(resultado, () -> {
+            restaurarBotones();
+            if (resultado.isEncontroSolucion() && !resultado.isInterrumpido()
+                    && !resultado.isDesdeCache() && prediccion == null) {
+                lblEstado.setText("Listo - Solución mostrada");
+            }
+        });
     }
     
     /**
-     * Copia el estado de las celdas del laberinto copia al original
+     * Candidatos de Auto: los algoritmos óptimos que admiten el tamaño, así
+     * la elección cambia el tiempo pero nunca la respuesta
      */
-    private void copiarEstadoAlLaberintoOriginal(Laberinto copiaLaberinto) {
-        for (int i = 0; i < laberinto.getFilas(); i++) {
-            for (int j = 0; j < laberinto.getColumnas(); j++) {
-                Celda celdaOriginal = laberinto.getCelda(i, j);
-                Celda celdaCopia = copiaLaberinto.getCelda(i, j);
-                
-                // Copiar estados de visitada y en camino
-                celdaOriginal.setVisitada(celdaCopia.isVisitada());
-                celdaOriginal.setEnCamino(celdaCopia.isEnCamino());
+    private Prediccion elegirAutomatico(CaracteristicasLaberinto caracteristicas) {
+        List<String> candidatos = new ArrayList<>();
+        for (DescripcionAlgoritmo descripcion : RegistroAlgoritmos.getInstancia().getRecomendados(laberinto)) {
+            if (descripcion.isOptimo()) {
+                candidatos.add(descripcion.getNombre());
             }
         }
+        return predictor.elegir(caracteristicas, candidatos);
+    }
+    
+    private String describirPrediccion(Prediccion prediccion, ResultadoEjecucion resultado) {
+        if (!prediccion.hayDatos()) {
+            return "Auto: " + prediccion.getAlgoritmo() + " (sin historial para predecir)";
+        }
+        PredictorRendimiento.Precision precision = predictor.medirPrecision();
+        return String.format("Auto: %s - previsto %.2f ms, real %.2f ms (error medio %.0f%% en %d)",
+            prediccion.getAlgoritmo(),
+            prediccion.getTiempoNs() / 1_000_000.0,
+            resultado.getTiempoEjecucionNs() / 1_000_000.0,
+            precision.getErrorMedio() * 100,
+            precision.getCantidad());
+    }
+    
+    /**
+     * true si el laberinto en pantalla sigue siendo el que se copió para la
+     * búsqueda: el mismo objeto y el mismo contenido (hash Zobrist)
+     */
+    private boolean sigueIgual(Laberinto original, Laberinto copia) {
+        return laberinto == original && laberinto.getHash() == copia.getHash();
+    }
+    
+    /**
+     * El laberinto se editó o se reemplazó mientras corría la búsqueda: su
+     * resultado no corresponde a lo que se ve y no se muestra ni se registra
+     */
+    private void descartarResultado() {
+        panelLaberinto.detenerAnimacion();
+        restaurarBotones();
+        lblEstado.setText("El laberinto cambió durante la búsqueda: resultado descartado");
+    }
+    
+    private void restaurarBotones() {
+        btnResolver.setEnabled(true);
+        btnDetener.setEnabled(false);
+    }
+    
+    private boolean hayTrabajoEnCurso() {
+        if (trabajoActual != null && !trabajoActual.isDone()) {
+            JOptionPane.showMessageDialog(this, 
+                "Ya hay una búsqueda en curso", 
+                "Advertencia", 
+                JOptionPane.WARNING_MESSAGE);
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Indica qué búsqueda está corriendo (se puede llamar desde el hilo de trabajo)
+     */
+    private void registrarEnCurso(String etiqueta, ControlEjecucion control) {
+        inicioEnCursoNs = System.nanoTime();
+        etiquetaEnCurso = etiqueta;
+        controlEnCurso = control;
+    }
+    
+    /**
+     * Timer de Swing que muestra en la barra de estado los nodos procesados y
+     * el ritmo (nodos/s) informados por el control de la búsqueda en curso
+     */
+    private Timer iniciarProgreso() {
+        Timer timer = new Timer(INTERVALO_PROGRESO_MS, e -> {
+            ControlEjecucion control = controlEnCurso;
+            if (control == null) return;
+            long nodos = control.getNodosProcesados();
+            double segundos = (System.nanoTime() - inicioEnCursoNs) / 1e9;
+            lblEstado.setText(String.format("%s %,d nodos (%,.0f nodos/s)",
+                etiquetaEnCurso, nodos, segundos > 0 ? nodos / segundos : 0.0));
+        });
+        timer.start();
+        return timer;
+    }
+    
+    /**
+     * Detiene la animación y, si hay una búsqueda en curso, la cancela
+     */
+    private void detenerEjecucion() {
+        if (controlActual != null) {
+            controlActual.cancelar();
+        }
+        panelLaberinto.detenerAnimacion();
     }
     
     private void compararTodos() {
@@ -807,153 +986,262 @@ public class VentanaGameplay extends JFrame {
             return;
         }
         
+        if (hayTrabajoEnCurso()) return;
+        
         // Deshabilitar botones durante la comparación
         btnResolver.setEnabled(false);
         btnDetener.setEnabled(true);
         
-        // Thread para ejecutar las animaciones secuencialmente
-        new Thread(() -> {
-            String[] algoritmos = {
-                "BFS (Breadth-First Search)",
-                "DFS (Depth-First Search)",
-                "Recursivo 2 direcciones",
-                "Recursivo 4 direcciones",
-                "Recursivo 4 direcciones con backtracking"
-            };
-            
-            List<ResultadoEjecucion> todosResultados = new ArrayList<>();
+        // DETENER cancela el lote; cada algoritmo corre con un control hijo y
+        // su tiempo límite
+        controlActual = new ControlEjecucion();
+        final ControlEjecucion lote = controlActual;
+        
+        // Todos corren sobre una misma copia: editar el laberinto durante la
+        // comparación no altera las búsquedas
+        final Laberinto original = laberinto;
+        final Laberinto copia = laberinto.clonar();
+        final Timer timerProgreso = iniciarProgreso();
+        
+        // Trabajo en segundo plano que ejecuta las animaciones secuencialmente
+        SwingWorker<List<ResultadoEjecucion>, Void> trabajador = new SwingWorker<List<ResultadoEjecucion>, Void>() {
+            @Override
+            protected List<ResultadoEjecucion> doInBackground() {
+                return compararSecuencialmente(original, copia, lote);
+            }
             
-            for (int i = 0; i < algoritmos.length; i++) {
-                final String algoritmoActual = algoritmos[i];
-                final int indice = i;
-                
+            @Override
+            protected void done() {
+                timerProgreso.stop();
+                restaurarBotones();
+                List<ResultadoEjecucion> todosResultados;
                 try {
-                    // Mostrar mensaje de inicio
-                    SwingUtilities.invokeLater(() -> {
-                        JOptionPane.showMessageDialog(this,
-                            "Ejecutando algoritmo:\n" + algoritmoActual,
-                            "Comparación de Algoritmos",
-                            JOptionPane.INFORMATION_MESSAGE);
-                    });
-                    
-                    // Actualizar UI
-                    SwingUtilities.invokeAndWait(() -> {
-                        comboAlgoritmos.setSelectedItem(algoritmoActual);
-                        lblEstado.setText("Resolviendo: " + algoritmoActual.split(" ")[0]);
-                        panelLaberinto.limpiarResultado();
-                    });
-                    
-                    // Pequeña pausa para que se vea el cambio
-                    Thread.sleep(500);
-                    
-                    // Ejecutar algoritmo
-                    Laberinto copiaLaberinto = laberinto.clonar();
-                    final ResultadoEjecucion[] resultadoHolder = new ResultadoEjecucion[1];
-                    
-                    long tiempoInicio = System.nanoTime();
-                    
-                    if (algoritmoActual.contains("BFS")) {
-                        resultadoHolder[0] = new BFS(copiaLaberinto).resolver();
-                    } else if (algoritmoActual.contains("DFS")) {
-                        resultadoHolder[0] = new DFS(copiaLaberinto).resolver();
-                    } else if (algoritmoActual.equals("Recursivo 2 direcciones")) {
-                        resultadoHolder[0] = new RecursivoDosDirecciones(copiaLaberinto).resolver();
-                    } else if (algoritmoActual.equals("Recursivo 4 direcciones")) {
-                        resultadoHolder[0] = new RecursivoCuatroDirecciones(copiaLaberinto).resolver();
-                    } else if (algoritmoActual.contains("backtracking")) {
-                        resultadoHolder[0] = new RecursivoBacktracking(copiaLaberinto).resolver();
-                    }
-                    
-                    long tiempoFin = System.nanoTime();
-                    
-                    if (resultadoHolder[0] != null) {
-                        resultadoHolder[0].setTiempoEjecucionNs(tiempoFin - tiempoInicio);
-                        todosResultados.add(resultadoHolder[0]);
-                        
-                        // Actualizar estadísticas
-                        final ResultadoEjecucion resultadoFinal = resultadoHolder[0];
-                        SwingUtilities.invokeLater(() -> {
-                            actualizarEstadisticas(resultadoFinal);
-                        });
-                        
-                        // Copiar estado al laberinto original
-                        SwingUtilities.invokeAndWait(() -> {
-                            copiarEstadoAlLaberintoOriginal(copiaLaberinto);
-                        });
-                        
-                        // Mostrar si encontró solución o no
-                        final boolean encontroSolucion = resultadoHolder[0].isEncontroSolucion();
-                        SwingUtilities.invokeLater(() -> {
-                            if (!encontroSolucion) {
-                                JOptionPane.showMessageDialog(this,
-                                    algoritmoActual + "\nNo encontró solución",
-                                    "Sin solución",
-                                    JOptionPane.WARNING_MESSAGE);
-                            }
-                        });
-                        
-                        // Animar la solución solo si la encontró
-                        if (encontroSolucion) {
-                            SwingUtilities.invokeLater(() -> {
-                                panelLaberinto.animarSolucion(resultadoHolder[0]);
-                            });
-                            
-                            // Esperar a que termine la animación
-                            Thread.sleep(3000);
-                            
-                            // Guardar resultado
-                            guardador.guardarResultado(resultadoHolder[0], laberinto.getFilas(), laberinto.getColumnas());
-                        } else {
-                            // Espera menor si no hay solución
-                            Thread.sleep(1000);
-                        }
-                    }
-                    
-                    // Si no es el último algoritmo, preparar para el siguiente
-                    if (indice < algoritmos.length - 1) {
-                        SwingUtilities.invokeLater(() -> {
-                            panelLaberinto.limpiarResultado();
-                            JOptionPane.showMessageDialog(this,
-                                "Algoritmo completado.\nContinuando con el siguiente...",
-                                "Siguiente algoritmo",
-                                JOptionPane.INFORMATION_MESSAGE);
-                        });
-                        Thread.sleep(1000);
-                    }
-                    
-                } catch (Exception e) {
+                    todosResultados = get();
+                } catch (InterruptedException | ExecutionException e) {
                     e.printStackTrace();
+                    lblEstado.setText("Error al comparar los algoritmos");
+                    return;
                 }
-            }
-            
-            // Al finalizar todas las comparaciones
-            SwingUtilities.invokeLater(() -> {
+                
+                // Cancelada, o descartada porque el laberinto cambió (el estado ya lo dice)
+                if (lote.isCancelado()) {
+                    if (sigueIgual(original, copia)) {
+                        lblEstado.setText("Comparación cancelada");
+                    }
+                    return;
+                }
+                
                 // Mensaje final
-                JOptionPane.showMessageDialog(this,
+                JOptionPane.showMessageDialog(VentanaGameplay.this,
                     "Comparación completada.\nMostrando resultados...",
                     "Fin de la comparación",
                     JOptionPane.INFORMATION_MESSAGE);
                 
-                // Encontrar el mejor resultado
-                ResultadoEjecucion mejor = null;
-                for (ResultadoEjecucion r : todosResultados) {
-                    if (r.isEncontroSolucion()) {
-                        if (mejor == null || r.getLongitudCamino() < mejor.getLongitudCamino()) {
-                            mejor = r;
-                        }
+                // Mostrar ventana de comparación
+                mostrarVentanaComparacion(todosResultados);
+                lblEstado.setText("Comparación completada");
+            }
+        };
+        trabajoActual = trabajador;
+        trabajador.execute();
+    }
+    
+    /**
+     * Cuerpo de compararTodos (en el hilo de trabajo): corre cada algoritmo
+     * sobre la copia con pausas para que se vea, y anima y guarda las
+     * soluciones mientras el laberinto en pantalla siga siendo el copiado
+     */
+    private List<ResultadoEjecucion> compararSecuencialmente(Laberinto original, Laberinto copia,
+                                                             ControlEjecucion lote) {
+        CaracteristicasLaberinto caracteristicas = CaracteristicasLaberinto.calcular(copia);
+        List<DescripcionAlgoritmo> algoritmos = RegistroAlgoritmos.getInstancia().getRecomendados(copia);
+        
+        List<ResultadoEjecucion> todosResultados = new ArrayList<>();
+        
+        for (int i = 0; i < algoritmos.size() && !lote.isCancelado(); i++) {
+            final DescripcionAlgoritmo descripcion = algoritmos.get(i);
+            final String algoritmoActual = descripcion.getNombre();
+            
+            try {
+                // Mostrar mensaje de inicio
+                SwingUtilities.invokeLater(() -> {
+                    JOptionPane.showMessageDialog(this,
+                        "Ejecutando algoritmo:\n" + algoritmoActual,
+                        "Comparación de Algoritmos",
+                        JOptionPane.INFORMATION_MESSAGE);
+                });
+                
+                // Actualizar UI
+                SwingUtilities.invokeAndWait(() -> {
+                    comboAlgoritmos.setSelectedItem(algoritmoActual);
+                    lblEstado.setText("Resolviendo: " + algoritmoActual.split(" ")[0]);
+                    panelLaberinto.limpiarResultado();
+                });
+                
+                // Pequeña pausa para que se vea el cambio
+                Thread.sleep(500);
+                if (lote.isCancelado()) break;
+                
+                // Ejecutar algoritmo sobre la copia (solo lectura)
+                ControlEjecucion control = new ControlEjecucion(lote);
+                control.setTiempoLimiteMs(TIEMPO_LIMITE_MS);
+                registrarEnCurso(String.format("Comparando %d/%d: %s", i + 1, algoritmos.size(), algoritmoActual), control);
+                
+                long tiempoInicio = System.nanoTime();
+                
+                final ResultadoEjecucion resultado = descripcion.crear(copia).resolver(control);
+                
+                long tiempoFin = System.nanoTime();
+                
+                resultado.setTiempoEjecucionNs(tiempoFin - tiempoInicio);
+                if (resultado.isCancelado()) break;
+                todosResultados.add(resultado);
+                
+                // Actualizar estadísticas
+                SwingUtilities.invokeLater(() -> {
+                    actualizarEstadisticas(resultado);
+                });
+                
+                // Mostrar si encontró solución o no
+                final boolean encontroSolucion = resultado.isEncontroSolucion() && !resultado.isInterrumpido();
+                SwingUtilities.invokeLater(() -> {
+                    if (!encontroSolucion) {
+                        JOptionPane.showMessageDialog(this,
+                            algoritmoActual + "\n" + (resultado.isInterrumpido()
+                                ? resultado.describirInterrupcion() : "No encontró solución"),
+                            "Sin solución",
+                            JOptionPane.WARNING_MESSAGE);
                     }
+                });
+                
+                // Animar y guardar la solución solo si la encontró y el
+                // laberinto en pantalla sigue siendo el de la copia
+                if (encontroSolucion) {
+                    SwingUtilities.invokeLater(() -> {
+                        if (!sigueIgual(original, copia)) {
+                            lote.cancelar();
+                            descartarResultado();
+                            return;
+                        }
+                        panelLaberinto.animarSolucion(resultado);
+                        guardador.guardarResultado(resultado, caracteristicas);
+                    });
+                    
+                    // Esperar a que termine la animación
+                    Thread.sleep(3000);
+                } else {
+                    // Espera menor si no hay solución
+                    Thread.sleep(1000);
                 }
                 
-                // Mostrar ventana de comparación
-                mostrarVentanaComparacion(todosResultados);
+                // Si no es el último algoritmo, preparar para el siguiente
+                if (i < algoritmos.size() - 1 && !lote.isCancelado()) {
+                    SwingUtilities.invokeLater(() -> {
+                        panelLaberinto.limpiarResultado();
+                        JOptionPane.showMessageDialog(this,
+                            "Algoritmo completado.\nContinuando con el siguiente...",
+                            "Siguiente algoritmo",
+                            JOptionPane.INFORMATION_MESSAGE);
+                    });
+                    Thread.sleep(1000);
+                }
                 
-                // Restaurar botones
-                btnResolver.setEnabled(true);
-                btnDetener.setEnabled(false);
-                lblEstado.setText("Comparación completada");
-            });
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+        
+        return todosResultados;
+    }
+    
+    /**
+     * Comparación rápida: los algoritmos registrados que admiten el tamaño
+     * del laberinto, todos a la vez sobre una misma copia de solo lectura,
+     * sin pausas ni animaciones. Al terminar se muestra la tabla y solo se
+     * anima el algoritmo que el usuario elija.
+     * Los tiempos de reloj se solapan, por eso la tabla agrega el tiempo de
+     * CPU de cada tarea y los resultados no se guardan en el CSV.
+     */
+    private void compararRapido() {
+        if (laberinto.getInicio() == null || laberinto.getFin() == null) {
+            JOptionPane.showMessageDialog(this, 
+                "Por favor defina el punto de inicio (A) y fin (B) antes de comparar", 
+                "Advertencia", 
+                JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        
+        if (hayTrabajoEnCurso()) return;
+        
+        controlActual = new ControlEjecucion();
+        final ControlEjecucion lote = controlActual;
+        final Laberinto original = laberinto;
+        final Laberinto copia = laberinto.clonar();
+        final List<AlgoritmoLaberinto> algoritmos = new ArrayList<>();
+        for (DescripcionAlgoritmo descripcion : RegistroAlgoritmos.getInstancia().getRecomendados(copia)) {
+            algoritmos.add(descripcion.crear(copia));
+        }
+        
+        btnResolver.setEnabled(false);
+        btnDetener.setEnabled(true);
+        panelLaberinto.limpiarResultado();
+        lblEstado.setText(String.format("Comparación rápida: 0/%d", algoritmos.size()));
+        
+        final AtomicInteger terminados = new AtomicInteger();
+        SwingWorker<List<ResultadoEjecucion>, Void> trabajador = new SwingWorker<List<ResultadoEjecucion>, Void>() {
+            @Override
+            protected List<ResultadoEjecucion> doInBackground() throws InterruptedException {
+                return new ComparadorParalelo().ejecutar(algoritmos, lote, TIEMPO_LIMITE_MS, resultado -> {
+                    int n = terminados.incrementAndGet();
+                    SwingUtilities.invokeLater(() -> lblEstado.setText(String.format(
+                        "Comparación rápida: %d/%d (%s)", n, algoritmos.size(), resultado.getNombreAlgoritmo())));
+                });
+            }
             
-        }).start();
+            @Override
+            protected void done() {
+                restaurarBotones();
+                List<ResultadoEjecucion> resultados;
+                try {
+                    resultados = get();
+                } catch (InterruptedException | ExecutionException e) {
+                    Throwable causa = e.getCause() != null ? e.getCause() : e;
+                    causa.printStackTrace();
+                    lblEstado.setText("Error al comparar los algoritmos");
+                    return;
+                }
+                
+                lblEstado.setText(lote.isCancelado() ? "Comparación cancelada" : "Comparación completada");
+                if (resultados.isEmpty()) return;
+                
+                VentanaComparacion ventana = new VentanaComparacion(VentanaGameplay.this, resultados, elegido -> {
+                    if (sigueIgual(original, copia)) {
+                        animarResultado(elegido);
+                    } else {
+                        descartarResultado();
+                    }
+                });
+                ventana.setVisible(true);
+            }
+        };
+        trabajoActual = trabajador;
+        trabajador.execute();
+    }
+    
+    /**
+     * Anima un resultado ya calculado (elegido en la comparación rápida)
+     */
+    private void animarResultado(ResultadoEjecucion resultado) {
+        actualizarEstadisticas(resultado);
+        panelLaberinto.setVelocidadAnimacion((Integer) spinnerVelocidad.getValue());
+        panelLaberinto.limpiarResultado();
+        btnResolver.setEnabled(false);
+        btnDetener.setEnabled(true);
+        lblEstado.setText("Animando: " + resultado.getNombreAlgoritmo());
+        panelLaberinto.animarSolucion(resultado, () -> {
+            restaurarBotones();
+            lblEstado.setText("Listo - " + resultado.getNombreAlgoritmo());
+        });
     }
     
     private void mostrarEstadisticas() {
@@ -982,17 +1270,51 @@ public class VentanaGameplay extends JFrame {
             return;
         }
         
-        List<ResultadoEjecucion> resultados = ejecutarTodosLosAlgoritmos();
+        if (hayTrabajoEnCurso()) return;
         
-        if (!resultados.isEmpty()) {
-            VentanaGraficos ventanaGraficos = new VentanaGraficos(this, resultados);
-            ventanaGraficos.setVisible(true);
-        } else {
-            JOptionPane.showMessageDialog(this, 
-                "No hay resultados para mostrar", 
-                "Sin datos", 
-                JOptionPane.INFORMATION_MESSAGE);
-        }
+        // Se ejecutan todos en segundo plano; DETENER cancela el lote
+        controlActual = new ControlEjecucion();
+        final ControlEjecucion lote = controlActual;
+        final Laberinto copia = laberinto.clonar();
+        btnResolver.setEnabled(false);
+        btnDetener.setEnabled(true);
+        final Timer timerProgreso = iniciarProgreso();
+        
+        SwingWorker<List<ResultadoEjecucion>, Void> trabajador = new SwingWorker<List<ResultadoEjecucion>, Void>() {
+            @Override
+            protected List<ResultadoEjecucion> doInBackground() {
+                return ejecutarTodosLosAlgoritmos(copia, lote);
+            }
+            
+            @Override
+            protected void done() {
+                timerProgreso.stop();
+                restaurarBotones();
+                List<ResultadoEjecucion> resultados;
+                try {
+                    resultados = get();
+                } catch (InterruptedException | ExecutionException e) {
+                    e.printStackTrace();
+                    lblEstado.setText("Error al ejecutar los algoritmos");
+                    return;
+                }
+                
+                if (lote.isCancelado()) {
+                    lblEstado.setText("Ejecución cancelada");
+                } else if (!resultados.isEmpty()) {
+                    lblEstado.setText("Listo (" + cache + ")");
+                    VentanaGraficos ventanaGraficos = new VentanaGraficos(VentanaGameplay.this, resultados);
+                    ventanaGraficos.setVisible(true);
+                } else {
+                    JOptionPane.showMessageDialog(VentanaGameplay.this, 
+                        "No hay resultados para mostrar", 
+                        "Sin datos", 
+                        JOptionPane.INFORMATION_MESSAGE);
+                }
+            }
+        };
+        trabajoActual = trabajador;
+        trabajador.execute();
     }
     
     private void mostrarAcercaDe() {
@@ -1055,47 +1377,42 @@ public class VentanaGameplay extends JFrame {
         }
     }
     
-    private List<ResultadoEjecucion> ejecutarTodosLosAlgoritmos() {
+    /**
+     * Corre los algoritmos del registro que admiten el tamaño del laberinto
+     * sobre la copia (en el hilo de trabajo); cada uno con su control hijo
+     * del lote y su tiempo límite. Los que ya corrieron sobre el mismo
+     * laberinto salen de la caché.
+     */
+    private List<ResultadoEjecucion> ejecutarTodosLosAlgoritmos(Laberinto laberinto, ControlEjecucion lote) {
         List<ResultadoEjecucion> resultados = new ArrayList<>();
         
-        String[] algoritmos = {
-            "BFS (Breadth-First Search)",
-            "DFS (Depth-First Search)",
-            "Recursivo 2 direcciones",
-            "Recursivo 4 direcciones",
-            "Recursivo 4 direcciones con backtracking"
-        };
+        List<DescripcionAlgoritmo> algoritmos = RegistroAlgoritmos.getInstancia().getRecomendados(laberinto);
+        CaracteristicasLaberinto caracteristicas = CaracteristicasLaberinto.calcular(laberinto);
         
-        for (String algoritmo : algoritmos) {
-            comboAlgoritmos.setSelectedItem(algoritmo);
+        for (int i = 0; i < algoritmos.size() && !lote.isCancelado(); i++) {
+            DescripcionAlgoritmo descripcion = algoritmos.get(i);
+            SwingUtilities.invokeLater(() -> comboAlgoritmos.setSelectedItem(descripcion.getNombre()));
             
-            Laberinto copiaLaberinto = laberinto.clonar();
-            ResultadoEjecucion resultado = null;
-            
-            long tiempoInicio = System.nanoTime();
-            
-            if (algoritmo.contains("BFS")) {
-                resultado = new BFS(copiaLaberinto).resolver();
-            } else if (algoritmo.contains("DFS")) {
-                resultado = new DFS(copiaLaberinto).resolver();
-            } else if (algoritmo.equals("Recursivo 2 direcciones")) {
-                resultado = new RecursivoDosDirecciones(copiaLaberinto).resolver();
-            } else if (algoritmo.equals("Recursivo 4 direcciones")) {
-                resultado = new RecursivoCuatroDirecciones(copiaLaberinto).resolver();
-            } else if (algoritmo.contains("backtracking")) {
-                resultado = new RecursivoBacktracking(copiaLaberinto).resolver();
-            }
-            
-            long tiempoFin = System.nanoTime();
-            
-            if (resultado != null) {
+            ResultadoEjecucion resultado = cache.buscar(descripcion.getNombre(), laberinto);
+            if (resultado == null) {
+                ControlEjecucion control = new ControlEjecucion(lote);
+                control.setTiempoLimiteMs(TIEMPO_LIMITE_MS);
+                registrarEnCurso(String.format("Gráficos %d/%d: %s", i + 1, algoritmos.size(), descripcion.getNombre()), control);
+                
+                long tiempoInicio = System.nanoTime();
+                
+                resultado = descripcion.crear(laberinto).resolver(control);
+                
+                long tiempoFin = System.nanoTime();
+                
                 resultado.setTiempoEjecucionNs(tiempoFin - tiempoInicio);
-                resultados.add(resultado);
+                cache.guardar(descripcion.getNombre(), laberinto, resultado);
                 
-                if (resultado.isEncontroSolucion()) {
-                    guardador.guardarResultado(resultado, laberinto.getFilas(), laberinto.getColumnas());
+                if (resultado.isEncontroSolucion() && !resultado.isInterrumpido()) {
+                    guardador.guardarResultado(resultado, caracteristicas);
                 }
             }
+            resultados.add(resultado);
         }
         
         return resultados;